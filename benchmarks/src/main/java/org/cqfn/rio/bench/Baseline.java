@@ -0,0 +1,316 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Baselines of JMH results for regression gating.
+ * <p>
+ * In save mode it splits JMH JSON result ({@code -rf json}) into per-scenario
+ * baseline files, one JSON file per benchmark class in baselines directory.
+ * In compare mode it matches each result by benchmark name, mode and params
+ * with baseline and fails with non-zero exit code if primary score
+ * (throughput or time per operation) or normalized allocation rate
+ * ({@code gc.alloc.rate.norm} from {@code -prof gc}) regressed more than
+ * tolerance percent.
+ * </p>
+ */
+public final class Baseline {
+
+    /**
+     * Exit code on regression.
+     */
+    private static final int REGRESSION = 2;
+
+    /**
+     * Allocation metric suffix.
+     */
+    private static final String ALLOC = "gc.alloc.rate.norm";
+
+    /**
+     * Absolute slack of allocation metric in bytes per operation,
+     * it ignores regressions of near-zero allocations.
+     */
+    private static final double ALLOC_SLACK = 1.0;
+
+    /**
+     * CLI options.
+     */
+    private static final Options OPTS = new Options()
+        .addOption(
+            Option.builder("r")
+                .longOpt("result")
+                .hasArg()
+                .required()
+                .desc("JMH JSON result file")
+                .build()
+        ).addOption(
+            Option.builder("b")
+                .longOpt("baselines")
+                .hasArg()
+                .required()
+                .desc("Baselines directory")
+                .build()
+        ).addOption(
+            Option.builder("t")
+                .longOpt("tolerance")
+                .hasArg()
+                .desc("Regression tolerance in percents, 10 by default")
+                .build()
+        ).addOption(
+            Option.builder()
+                .longOpt("save")
+                .desc("Save result as new baselines instead of comparing")
+                .build()
+        );
+
+    /**
+     * Ctor.
+     */
+    private Baseline() {
+    }
+
+    /**
+     * Entry point.
+     * @param args CLI args
+     * @throws IOException On error
+     */
+    public static void main(final String... args) throws IOException {
+        final CommandLine cli;
+        try {
+            cli = new DefaultParser().parse(OPTS, args);
+        } catch (final ParseException err) {
+            new HelpFormatter().printHelp("Baseline", OPTS);
+            System.exit(1);
+            return;
+        }
+        final JsonArray result = Baseline.read(Paths.get(cli.getOptionValue('r')));
+        final Path dir = Paths.get(cli.getOptionValue('b'));
+        if (cli.hasOption("save")) {
+            Baseline.save(result, dir);
+            System.exit(0);
+            return;
+        }
+        final double tolerance = Double.parseDouble(cli.getOptionValue('t', "10")) / 100.0;
+        final int regressions = Baseline.compare(result, Baseline.load(dir), tolerance);
+        if (regressions > 0) {
+            System.out.printf("%d regressions found\n", regressions);
+            System.exit(REGRESSION);
+            return;
+        }
+        System.out.println("no regressions found");
+        System.exit(0);
+    }
+
+    /**
+     * Save result as per-scenario baselines.
+     * @param result JMH result
+     * @param dir Baselines directory
+     * @throws IOException On error
+     */
+    private static void save(final JsonArray result, final Path dir) throws IOException {
+        final Map<String, JsonArray> scenarios = new LinkedHashMap<>();
+        for (int pos = 0; pos < result.size(); ++pos) {
+            final JsonObject item = result.getJsonObject(pos);
+            scenarios.computeIfAbsent(Baseline.scenario(item), key -> new JsonArray()).add(item);
+        }
+        Files.createDirectories(dir);
+        for (final Map.Entry<String, JsonArray> entry : scenarios.entrySet()) {
+            final Path path = dir.resolve(String.format("%s.json", entry.getKey()));
+            Files.write(path, entry.getValue().encodePrettily().getBytes(StandardCharsets.UTF_8));
+            System.out.printf("saved %d results to %s\n", entry.getValue().size(), path);
+        }
+    }
+
+    /**
+     * Load all baselines.
+     * @param dir Baselines directory
+     * @return Baseline results by key
+     * @throws IOException On error
+     */
+    private static Map<String, JsonObject> load(final Path dir) throws IOException {
+        final Map<String, JsonObject> res = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (final Path file : files) {
+                final JsonArray items = Baseline.read(file);
+                for (int pos = 0; pos < items.size(); ++pos) {
+                    final JsonObject item = items.getJsonObject(pos);
+                    res.put(Baseline.key(item), item);
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Compare result with baselines and print the report.
+     * @param result JMH result
+     * @param baselines Baselines by key
+     * @param tolerance Tolerance ratio
+     * @return Amount of regressions
+     */
+    private static int compare(final JsonArray result, final Map<String, JsonObject> baselines,
+        final double tolerance) {
+        int regressions = 0;
+        for (int pos = 0; pos < result.size(); ++pos) {
+            final JsonObject item = result.getJsonObject(pos);
+            final String key = Baseline.key(item);
+            final JsonObject base = baselines.get(key);
+            if (base == null) {
+                System.out.printf("NEW        %s\n", key);
+                continue;
+            }
+            final JsonObject metric = item.getJsonObject("primaryMetric");
+            final boolean higher = "thrpt".equals(item.getString("mode"));
+            if (!Baseline.check(
+                key, base.getJsonObject("primaryMetric"), metric, higher, tolerance, 0.0
+            )) {
+                ++regressions;
+            }
+            final JsonObject alloc = Baseline.alloc(item);
+            final JsonObject balloc = Baseline.alloc(base);
+            if (alloc != null && balloc != null
+                && !Baseline.check(key, balloc, alloc, false, tolerance, ALLOC_SLACK)) {
+                ++regressions;
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Check metric and print the line of report.
+     * @param key Result key
+     * @param base Baseline metric
+     * @param metric New metric
+     * @param higher Higher score is better
+     * @param tolerance Tolerance ratio
+     * @param slack Absolute slack of metric
+     * @return False if regressed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static boolean check(final String key, final JsonObject base,
+        final JsonObject metric, final boolean higher, final double tolerance,
+        final double slack) {
+        final double was = Baseline.score(base);
+        final double now = Baseline.score(metric);
+        final boolean regressed;
+        if (higher) {
+            regressed = now < was * (1.0 - tolerance) - slack;
+        } else {
+            regressed = now > was * (1.0 + tolerance) + slack;
+        }
+        final String status;
+        if (regressed) {
+            status = "REGRESSION";
+        } else {
+            status = "OK";
+        }
+        final double diff;
+        if (was == 0.0) {
+            diff = 0.0;
+        } else {
+            diff = (now - was) / was * 100.0;
+        }
+        System.out.printf(
+            Locale.US, "%-10s %s: %.3f -> %.3f %s (%+.1f%%)\n",
+            status, key, was, now, metric.getString("scoreUnit"), diff
+        );
+        return !regressed;
+    }
+
+    /**
+     * Find allocation metric.
+     * @param item JMH result item
+     * @return Metric or null if result was made without GC profiler
+     */
+    private static JsonObject alloc(final JsonObject item) {
+        final JsonObject metrics = item.getJsonObject("secondaryMetrics");
+        JsonObject res = null;
+        if (metrics != null) {
+            for (final String name : metrics.fieldNames()) {
+                if (name.endsWith(ALLOC)) {
+                    res = metrics.getJsonObject(name);
+                    break;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Metric score.
+     * @param metric JMH metric
+     * @return Score
+     */
+    private static double score(final JsonObject metric) {
+        final Object val = metric.getValue("score");
+        final double res;
+        if (val instanceof Number) {
+            res = ((Number) val).doubleValue();
+        } else {
+            res = Double.NaN;
+        }
+        return res;
+    }
+
+    /**
+     * Scenario name of result item, it's a simple name of benchmark class.
+     * @param item JMH result item
+     * @return Scenario name
+     */
+    private static String scenario(final JsonObject item) {
+        final String name = item.getString("benchmark");
+        final String cls = name.substring(0, name.lastIndexOf('.'));
+        return cls.substring(cls.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Result key to match it with baseline, test directory param is not
+     * a part of the key, so results from different directories can be compared.
+     * @param item JMH result item
+     * @return Key of benchmark name, mode and params
+     */
+    private static String key(final JsonObject item) {
+        final String name = item.getString("benchmark");
+        final StringBuilder res = new StringBuilder(
+            name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1)
+        ).append(' ').append(item.getString("mode"));
+        final JsonObject params = item.getJsonObject("params");
+        if (params != null) {
+            final Map<String, Object> sorted = new TreeMap<>(params.getMap());
+            sorted.remove("dir");
+            res.append(' ').append(sorted);
+        }
+        return res.toString();
+    }
+
+    /**
+     * Read JSON array file.
+     * @param path File path
+     * @return JSON array
+     * @throws IOException On error
+     */
+    private static JsonArray read(final Path path) throws IOException {
+        return new JsonArray(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+}
@@ -100,6 +100,13 @@ public final class Benchmark {
                 .desc("Test dir")
                 .type(String.class)
                 .build()
+        ).addOption(
+            Option.builder("r")
+                .longOpt("report")
+                .hasArg()
+                .desc("Print latency report in format: json or csv")
+                .type(String.class)
+                .build()
         ).addOption(
             Option.builder()
                 .longOpt("memory")
@@ -131,9 +138,16 @@ public final class Benchmark {
         final int par = Optional.ofNullable(cli.getOptionValue('l')).map(Integer::parseInt).orElse(1);
         final int size = Optional.ofNullable(cli.getOptionValue("size")).map(Integer::parseInt).orElse(0);
         final boolean memory = Optional.ofNullable(cli.getOptionValue("memory")).map(Boolean::parseBoolean).orElse(false);
+        final String report = cli.getOptionValue('r');
+        if (report != null && !"json".equals(report) && !"csv".equals(report)) {
+            new HelpFormatter().printHelp("Benchmarks", OPTS);
+            System.exit(1);
+            return;
+        }
+        final LatencyStats stats = new LatencyStats();
         // warmup
         for (int wm = 0; wm < warmup; wm++) {
-            consume(target, dst, producer(target, src, size, par)).join();
+            consume(target, dst, producer(target, src, size, par, null)).join();
         }
         // benchmark
         final AtomicBoolean run = new AtomicBoolean(false);
@@ -155,17 +169,26 @@ public final class Benchmark {
         for (int pos = 0; pos < count; pos++) {
             System.gc();
             run.set(true);
+            final List<Publisher<ByteBuffer>> sources =
+                producer(target, src, size, par, report == null ? null : stats);
             final long start = System.nanoTime();
-            consume(target, dst, producer(target, src, size, par)).join();
+            consume(target, dst, sources).join();
             final long end = System.nanoTime();
             run.set(false);
-            if (!memory) {
+            stats.elapsed(end - start);
+            if (!memory && report == null) {
                 System.out.println(end - start);
             }
         }
         if (profiler != null) {
             profiler.shutdown();
         }
+        if ("json".equals(report)) {
+            System.out.println(stats.json(target.getClass().getSimpleName(), mode(src, dst)));
+        } else if ("csv".equals(report)) {
+            System.out.println(LatencyStats.CSV_HEADER);
+            System.out.println(stats.csv(target.getClass().getSimpleName(), mode(src, dst)));
+        }
         System.exit(0);
     }
 
@@ -178,9 +201,22 @@ public final class Benchmark {
         return Paths.get(dir, val);
     }
 
+    private static String mode(final Path src, final Path dst) {
+        final String mode;
+        if (src != null && dst != null) {
+            mode = "copy";
+        } else if (src != null) {
+            mode = "read";
+        } else {
+            mode = "write";
+        }
+        return mode;
+    }
+
     private static List<Publisher<ByteBuffer>> producer(final BenchmarkTarget target,
-        final Path path, int size, int par) {
+        final Path path, int size, int par, final LatencyStats stats) {
         return IntStream.range(0, par).mapToObj(x -> producer(target, size, path))
+            .map(pub -> stats == null ? pub : stats.wrap(pub))
             .collect(Collectors.toList());
     }
 
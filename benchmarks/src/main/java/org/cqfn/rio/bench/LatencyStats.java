@@ -0,0 +1,188 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Latency statistics of benchmark streams.
+ * <p>
+ * It records per-chunk latency (time between two chunks of one stream,
+ * or between subscription and first chunk) and per-stream latency
+ * (time from subscription to completion) into HdrHistograms,
+ * and total amount of transferred bytes.
+ * </p>
+ */
+final class LatencyStats {
+
+    /**
+     * CSV header.
+     */
+    static final String CSV_HEADER = String.join(
+        ",",
+        "target", "mode", "streams", "bytes", "time_ms", "mib_s",
+        "chunk_p50_us", "chunk_p99_us", "chunk_p999_us", "chunk_max_us",
+        "stream_p50_ms", "stream_p99_ms", "stream_p999_ms", "stream_max_ms"
+    );
+
+    /**
+     * Per-chunk latency in nanoseconds.
+     */
+    private final Histogram chunks = new ConcurrentHistogram(3);
+
+    /**
+     * Per-stream latency in nanoseconds.
+     */
+    private final Histogram streams = new ConcurrentHistogram(3);
+
+    /**
+     * Transferred bytes.
+     */
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * Total measured time in nanoseconds.
+     */
+    private final AtomicLong time = new AtomicLong();
+
+    /**
+     * Wrap publisher to record its latency.
+     * @param origin Publisher
+     * @return Publisher with the same data
+     */
+    Publisher<ByteBuffer> wrap(final Publisher<ByteBuffer> origin) {
+        return sub -> origin.subscribe(new Timed(sub));
+    }
+
+    /**
+     * Add measured time of benchmark iteration.
+     * @param nanos Time in nanoseconds
+     */
+    void elapsed(final long nanos) {
+        this.time.addAndGet(nanos);
+    }
+
+    /**
+     * Format statistics as JSON object.
+     * @param target Target name
+     * @param mode Benchmark mode
+     * @return JSON string
+     */
+    String json(final String target, final String mode) {
+        return String.format(
+            Locale.US,
+            String.join(
+                "",
+                "{\"target\":\"%s\",\"mode\":\"%s\",\"streams\":%d,\"bytes\":%d,",
+                "\"time_ms\":%.3f,\"mib_s\":%.3f,",
+                "\"chunk_us\":{\"p50\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f},",
+                "\"stream_ms\":{\"p50\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f}}"
+            ),
+            this.values(target, mode)
+        );
+    }
+
+    /**
+     * Format statistics as CSV line, see {@link #CSV_HEADER}.
+     * @param target Target name
+     * @param mode Benchmark mode
+     * @return CSV line
+     */
+    String csv(final String target, final String mode) {
+        return String.format(
+            Locale.US, "%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+            this.values(target, mode)
+        );
+    }
+
+    /**
+     * Report values.
+     * @param target Target name
+     * @param mode Benchmark mode
+     * @return Values array
+     */
+    private Object[] values(final String target, final String mode) {
+        final double nanos = this.time.get();
+        final double ums = TimeUnit.MICROSECONDS.toNanos(1);
+        final double mls = TimeUnit.MILLISECONDS.toNanos(1);
+        return new Object[]{
+            target, mode, this.streams.getTotalCount(), this.bytes.get(),
+            nanos / mls,
+            this.bytes.get() / (1024.0 * 1024.0) / (nanos / TimeUnit.SECONDS.toNanos(1)),
+            this.chunks.getValueAtPercentile(50.0) / ums,
+            this.chunks.getValueAtPercentile(99.0) / ums,
+            this.chunks.getValueAtPercentile(99.9) / ums,
+            this.chunks.getMaxValue() / ums,
+            this.streams.getValueAtPercentile(50.0) / mls,
+            this.streams.getValueAtPercentile(99.0) / mls,
+            this.streams.getValueAtPercentile(99.9) / mls,
+            this.streams.getMaxValue() / mls,
+        };
+    }
+
+    /**
+     * Subscriber which records latency of chunks.
+     */
+    private final class Timed implements Subscriber<ByteBuffer> {
+
+        /**
+         * Origin subscriber.
+         */
+        private final Subscriber<? super ByteBuffer> origin;
+
+        /**
+         * Subscription time.
+         */
+        private long start;
+
+        /**
+         * Last chunk time.
+         */
+        private long last;
+
+        /**
+         * Wrap subscriber.
+         * @param origin Subscriber
+         */
+        Timed(final Subscriber<? super ByteBuffer> origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription sub) {
+            this.start = System.nanoTime();
+            this.last = this.start;
+            this.origin.onSubscribe(sub);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer buf) {
+            final long now = System.nanoTime();
+            LatencyStats.this.chunks.recordValue(now - this.last);
+            LatencyStats.this.bytes.addAndGet(buf.remaining());
+            this.last = now;
+            this.origin.onNext(buf);
+        }
+
+        @Override
+        public void onError(final Throwable err) {
+            this.origin.onError(err);
+        }
+
+        @Override
+        public void onComplete() {
+            LatencyStats.this.streams.recordValue(System.nanoTime() - this.start);
+            this.origin.onComplete();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.AdaptiveGreed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+
+/**
+ * Cost of {@link AdaptiveGreed} bookkeeping and adjustments.
+ * <p>
+ * Each operation receives {@code burst} items and then processes them, it
+ * simulates producer which is faster than consumer by burst size, so greed
+ * adjusts its amount and shift on requesting points.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AdaptiveGreedBench {
+
+    /**
+     * Items received before processing.
+     */
+    @Param({"1", "16", "256"})
+    public int burst;
+
+    /**
+     * Greed under test.
+     */
+    private AdaptiveGreed greed;
+
+    /**
+     * Set up greed.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.greed = new AdaptiveGreed(3, 1);
+    }
+
+    /**
+     * Receive and process burst of items.
+     * @param bhl Blackhole
+     */
+    @Benchmark
+    public void adjust(final Blackhole bhl) {
+        final Subscription sub = new Subscription() {
+            @Override
+            public void request(final long amount) {
+                bhl.consume(amount);
+            }
+
+            @Override
+            public void cancel() {
+                // nothing
+            }
+        };
+        for (int pos = 0; pos < this.burst; ++pos) {
+            this.greed.received(sub);
+        }
+        for (int pos = 0; pos < this.burst; ++pos) {
+            this.greed.processed(sub);
+        }
+    }
+}
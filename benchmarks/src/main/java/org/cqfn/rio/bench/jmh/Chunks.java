@@ -0,0 +1,117 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Publisher of read-only slices of single source buffer.
+ * <p>
+ * It emits chunks synchronously on request, so benchmarks measure consumer
+ * overhead and not the producer.
+ * </p>
+ */
+final class Chunks implements Publisher<ByteBuffer> {
+
+    /**
+     * Source buffer.
+     */
+    private final ByteBuffer src;
+
+    /**
+     * Amount of chunks.
+     */
+    private final long count;
+
+    /**
+     * New chunks publisher.
+     * @param src Source buffer
+     * @param count Amount of chunks to emit
+     */
+    Chunks(final ByteBuffer src, final long count) {
+        this.src = src;
+        this.count = count;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> sub) {
+        sub.onSubscribe(new ChunkSubscription(sub, this.src, this.count));
+    }
+
+    /**
+     * Subscription which emits chunks in the requesting thread.
+     */
+    private static final class ChunkSubscription implements Subscription {
+
+        /**
+         * Subscriber.
+         */
+        private final Subscriber<? super ByteBuffer> sub;
+
+        /**
+         * Source buffer.
+         */
+        private final ByteBuffer src;
+
+        /**
+         * Remaining chunks.
+         */
+        private final AtomicLong remaining;
+
+        /**
+         * Requested chunks.
+         */
+        private final AtomicLong demand;
+
+        /**
+         * Cancelled flag.
+         */
+        private final AtomicBoolean cancelled;
+
+        /**
+         * New subscription.
+         * @param sub Subscriber
+         * @param src Source buffer
+         * @param count Amount of chunks
+         */
+        ChunkSubscription(final Subscriber<? super ByteBuffer> sub, final ByteBuffer src,
+            final long count) {
+            this.sub = sub;
+            this.src = src;
+            this.remaining = new AtomicLong(count);
+            this.demand = new AtomicLong();
+            this.cancelled = new AtomicBoolean();
+        }
+
+        @Override
+        public void request(final long amount) {
+            if (this.demand.getAndAdd(amount) > 0) {
+                return;
+            }
+            long pending = amount;
+            while (pending > 0 && !this.cancelled.get()) {
+                for (long pos = 0; pos < pending; ++pos) {
+                    if (this.remaining.getAndDecrement() <= 0) {
+                        this.cancelled.set(true);
+                        this.sub.onComplete();
+                        return;
+                    }
+                    this.sub.onNext(this.src.asReadOnlyBuffer());
+                }
+                pending = this.demand.addAndGet(-pending);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled.set(true);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscriber which requests all items and counts received bytes.
+ */
+final class Drain implements Subscriber<ByteBuffer> {
+
+    /**
+     * Result future.
+     */
+    private final CompletableFuture<Long> future;
+
+    /**
+     * Bytes counter, accessed sequentially by publisher.
+     */
+    private long bytes;
+
+    /**
+     * New drain subscriber.
+     * @param future Result future
+     */
+    private Drain(final CompletableFuture<Long> future) {
+        this.future = future;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription sub) {
+        sub.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(final ByteBuffer buf) {
+        this.bytes += buf.remaining();
+    }
+
+    @Override
+    public void onError(final Throwable err) {
+        this.future.completeExceptionally(err);
+    }
+
+    @Override
+    public void onComplete() {
+        this.future.complete(this.bytes);
+    }
+
+    /**
+     * Drain publisher and wait for completion.
+     * @param pub Publisher of byte buffers
+     * @return Amount of bytes received
+     */
+    static long drain(final Publisher<ByteBuffer> pub) {
+        final CompletableFuture<Long> res = new CompletableFuture<>();
+        pub.subscribe(new Drain(res));
+        return res.join();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.channel.ReadableChannel;
+import org.cqfn.rio.channel.WritableChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of SPSC drain loops of read and write task queues.
+ * <p>
+ * Channels don't perform any IO, so the benchmark measures queue, greed and
+ * executor hops only.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class DrainBench {
+
+    /**
+     * Read loop: read chunks from source channel.
+     * @param state Read state
+     * @return Bytes read
+     */
+    @Benchmark
+    public long readLoop(final ReadState state) {
+        return Drain.drain(
+            new ReadableChannel(() -> new Source(state.size)).read(state.bufs)
+        );
+    }
+
+    /**
+     * Write loop: write chunks into sink channel.
+     * @param state Write state
+     */
+    @Benchmark
+    public void writeLoop(final WriteState state) {
+        new WritableChannel(Sink::new)
+            .write(new Chunks(state.src, state.count), state.greed.create())
+            .toCompletableFuture().join();
+    }
+
+    /**
+     * Read loop parameters.
+     */
+    @State(Scope.Benchmark)
+    public static class ReadState {
+
+        /**
+         * Buffers policy name.
+         */
+        @Param({"K1", "K8"})
+        public String buffers;
+
+        /**
+         * Amount of chunks per operation.
+         */
+        @Param("4096")
+        public int count;
+
+        /**
+         * Buffers policy.
+         */
+        private Buffers bufs;
+
+        /**
+         * Source size.
+         */
+        private long size;
+
+        /**
+         * Set up.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            this.bufs = Buffers.Standard.valueOf(this.buffers);
+            this.size = (long) this.bufs.create().capacity() * this.count;
+        }
+    }
+
+    /**
+     * Write loop parameters.
+     */
+    @State(Scope.Benchmark)
+    public static class WriteState {
+
+        /**
+         * Write greed.
+         */
+        @Param({"SINGLE", "CONSTANT", "ADAPTIVE"})
+        public Greeds greed;
+
+        /**
+         * Chunk size.
+         */
+        @Param("1024")
+        public int chunk;
+
+        /**
+         * Amount of chunks per operation.
+         */
+        @Param("4096")
+        public int count;
+
+        /**
+         * Source chunk.
+         */
+        private ByteBuffer src;
+
+        /**
+         * Set up.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            this.src = ByteBuffer.allocateDirect(this.chunk);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import org.cqfn.rio.AdaptiveGreed;
+import org.cqfn.rio.WriteGreed;
+
+/**
+ * Write greed variants for benchmark parameters.
+ * <p>
+ * Greed objects are stateful, so each write gets new instance.
+ * </p>
+ */
+public enum Greeds {
+    /**
+     * Request one item at a time.
+     */
+    SINGLE {
+        @Override
+        WriteGreed create() {
+            return WriteGreed.SINGLE;
+        }
+    },
+    /**
+     * Constant greed with default system amount and shift.
+     */
+    CONSTANT {
+        @Override
+        WriteGreed create() {
+            return new WriteGreed.Constant(3, 1);
+        }
+    },
+    /**
+     * Adaptive greed with default system amount and shift.
+     */
+    ADAPTIVE {
+        @Override
+        WriteGreed create() {
+            return new AdaptiveGreed(3, 1);
+        }
+    };
+
+    /**
+     * New greed instance.
+     * @return Write greed
+     */
+    abstract WriteGreed create();
+}
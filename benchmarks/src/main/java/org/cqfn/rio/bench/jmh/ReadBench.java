@@ -0,0 +1,102 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.file.File;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * File read throughput of {@code ReadableChannelPublisher} per buffers size.
+ * <p>
+ * The file is created in {@code dir} which is tmpfs-backed {@code /dev/shm}
+ * by default, so results measure rio overhead and not the disk.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ReadBench {
+
+    /**
+     * Test directory.
+     */
+    @Param("/dev/shm")
+    public String dir;
+
+    /**
+     * Buffers policy name.
+     */
+    @Param({"K1", "K4", "K8", "K16"})
+    public String buffers;
+
+    /**
+     * File size.
+     */
+    @Param({"1048576", "16777216"})
+    public int size;
+
+    /**
+     * Test file.
+     */
+    private Path file;
+
+    /**
+     * Buffers policy.
+     */
+    private Buffers bufs;
+
+    /**
+     * Create test file.
+     * @throws IOException On error
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final byte[] data = new byte[this.size];
+        new Random(0).nextBytes(data);
+        this.file = Files.createTempFile(Paths.get(this.dir), "rio-read", ".bin");
+        Files.write(this.file, data);
+        this.bufs = Buffers.Standard.valueOf(this.buffers);
+    }
+
+    /**
+     * Delete test file.
+     * @throws IOException On error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Read whole file.
+     * @return Bytes read
+     */
+    @Benchmark
+    public long read() {
+        return Drain.drain(new File(this.file).content(this.bufs));
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.file.File;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Concurrency scaling scenarios which are close to production load shapes.
+ * <p>
+ * Each scenario runs many parallel streams on IO executor with {@code threads}
+ * threads, so results show contention and fairness problems which single
+ * stream benchmarks hide:
+ * </p>
+ * <ul>
+ *  <li>{@code smallFiles} - read {@code small} files of 4 KiB in parallel</li>
+ *  <li>{@code mixed} - read 4 large files of 16 MiB and {@code small} files of 4 KiB
+ *   in parallel</li>
+ *  <li>{@code pipeline} - copy 16 files of 4 MiB in parallel, read to write</li>
+ *  <li>{@code slowConsumers} - read 16 files of 1 MiB in parallel with consumers which
+ *   request one chunk at a time and spend {@code delay} microseconds on each</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScenarioBench {
+
+    /**
+     * Size of small file.
+     */
+    private static final int SMALL = 4 * 1024;
+
+    /**
+     * Size of large file.
+     */
+    private static final int LARGE = 16 * 1024 * 1024;
+
+    /**
+     * Size of pipeline file.
+     */
+    private static final int PIPE = 4 * 1024 * 1024;
+
+    /**
+     * Size of file for slow consumer.
+     */
+    private static final int SLOW = 1024 * 1024;
+
+    /**
+     * Amount of large, pipeline and slow consumer streams.
+     */
+    private static final int STREAMS = 16;
+
+    /**
+     * Amount of large files in mixed scenario.
+     */
+    private static final int MIXED_LARGE = 4;
+
+    /**
+     * Test directory.
+     */
+    @Param("/dev/shm")
+    public String dir;
+
+    /**
+     * IO executor threads.
+     */
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    /**
+     * Amount of small files.
+     */
+    @Param("10000")
+    public int small;
+
+    /**
+     * Slow consumer delay in microseconds.
+     */
+    @Param("50")
+    public int delay;
+
+    /**
+     * Test files root.
+     */
+    private Path root;
+
+    /**
+     * Small files.
+     */
+    private List<Path> smalls;
+
+    /**
+     * Large files.
+     */
+    private List<Path> larges;
+
+    /**
+     * Pipeline source files.
+     */
+    private List<Path> pipes;
+
+    /**
+     * Slow consumer files.
+     */
+    private List<Path> slows;
+
+    /**
+     * IO executor.
+     */
+    private ExecutorService exec;
+
+    /**
+     * Create test files and executor.
+     * @throws IOException On error
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.root = Files.createTempDirectory(Paths.get(this.dir), "rio-scenario");
+        final Random rnd = new Random(0);
+        this.smalls = ScenarioBench.files(this.root, "small", this.small, SMALL, rnd);
+        this.larges = ScenarioBench.files(this.root, "large", MIXED_LARGE, LARGE, rnd);
+        this.pipes = ScenarioBench.files(this.root, "pipe", STREAMS, PIPE, rnd);
+        this.slows = ScenarioBench.files(this.root, "slow", STREAMS, SLOW, rnd);
+        this.exec = Executors.newFixedThreadPool(this.threads);
+    }
+
+    /**
+     * Delete test files and shutdown executor.
+     * @throws IOException On error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.exec.shutdown();
+        try (Stream<Path> walk = Files.walk(this.root)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(ScenarioBench::delete);
+        }
+    }
+
+    /**
+     * Delete copies of pipeline scenario.
+     * @throws IOException On error
+     */
+    @TearDown(Level.Iteration)
+    public void clean() throws IOException {
+        for (int pos = 0; pos < STREAMS; ++pos) {
+            Files.deleteIfExists(this.root.resolve(String.format("copy-%d", pos)));
+        }
+    }
+
+    /**
+     * Many small files in parallel.
+     */
+    @Benchmark
+    public void smallFiles() {
+        final List<CompletableFuture<Long>> all = new ArrayList<>(this.smalls.size());
+        for (final Path path : this.smalls) {
+            all.add(FastDrain.of(this.read(path)));
+        }
+        CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Few large and many small files in parallel.
+     */
+    @Benchmark
+    public void mixed() {
+        final List<CompletableFuture<Long>> all =
+            new ArrayList<>(this.smalls.size() + this.larges.size());
+        for (final Path path : this.larges) {
+            all.add(FastDrain.of(this.read(path)));
+        }
+        for (final Path path : this.smalls) {
+            all.add(FastDrain.of(this.read(path)));
+        }
+        CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Parallel copy pipelines.
+     */
+    @Benchmark
+    public void pipeline() {
+        final List<CompletableFuture<Void>> all = new ArrayList<>(STREAMS);
+        for (int pos = 0; pos < this.pipes.size(); ++pos) {
+            all.add(
+                new File(this.root.resolve(String.format("copy-%d", pos)), this.exec)
+                    .write(this.read(this.pipes.get(pos)))
+                    .toCompletableFuture()
+            );
+        }
+        CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Slow consumers in parallel.
+     */
+    @Benchmark
+    public void slowConsumers() {
+        final List<CompletableFuture<Long>> all = new ArrayList<>(STREAMS);
+        final long nanos = TimeUnit.MICROSECONDS.toNanos(this.delay);
+        for (final Path path : this.slows) {
+            final CompletableFuture<Long> res = new CompletableFuture<>();
+            this.read(path).subscribe(new SlowDrain(res, nanos));
+            all.add(res);
+        }
+        CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Read file with scenario executor.
+     * @param path File path
+     * @return Publisher
+     */
+    private Publisher<ByteBuffer> read(final Path path) {
+        return new File(path, this.exec).content(Buffers.Standard.K8);
+    }
+
+    /**
+     * Create random files.
+     * @param root Root dir
+     * @param prefix Name prefix
+     * @param count Amount of files
+     * @param size File size
+     * @param rnd Random
+     * @return File paths
+     * @throws IOException On error
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static List<Path> files(final Path root, final String prefix, final int count,
+        final int size, final Random rnd) throws IOException {
+        final byte[] data = new byte[size];
+        final List<Path> res = new ArrayList<>(count);
+        for (int pos = 0; pos < count; ++pos) {
+            rnd.nextBytes(data);
+            final Path path = root.resolve(String.format("%s-%d", prefix, pos));
+            Files.write(path, data);
+            res.add(path);
+        }
+        return res;
+    }
+
+    /**
+     * Delete path.
+     * @param path Path
+     */
+    private static void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException err) {
+            throw new IllegalStateException(err);
+        }
+    }
+
+    /**
+     * Subscriber which requests all chunks at once.
+     */
+    private static final class FastDrain implements Subscriber<ByteBuffer> {
+
+        /**
+         * Result.
+         */
+        private final CompletableFuture<Long> res;
+
+        /**
+         * Bytes received.
+         */
+        private long bytes;
+
+        /**
+         * New fast drain.
+         * @param res Result
+         */
+        FastDrain(final CompletableFuture<Long> res) {
+            this.res = res;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription sub) {
+            sub.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer buf) {
+            this.bytes += buf.remaining();
+        }
+
+        @Override
+        public void onError(final Throwable err) {
+            this.res.completeExceptionally(err);
+        }
+
+        @Override
+        public void onComplete() {
+            this.res.complete(this.bytes);
+        }
+
+        /**
+         * Subscribe to publisher.
+         * @param pub Publisher
+         * @return Future of received bytes
+         */
+        static CompletableFuture<Long> of(final Publisher<ByteBuffer> pub) {
+            final CompletableFuture<Long> res = new CompletableFuture<>();
+            pub.subscribe(new FastDrain(res));
+            return res;
+        }
+    }
+
+    /**
+     * Subscriber which requests one chunk at a time and spends some time on it.
+     */
+    private static final class SlowDrain implements Subscriber<ByteBuffer> {
+
+        /**
+         * Result.
+         */
+        private final CompletableFuture<Long> res;
+
+        /**
+         * Delay for each chunk in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Subscription.
+         */
+        private Subscription sub;
+
+        /**
+         * Bytes received.
+         */
+        private long bytes;
+
+        /**
+         * New slow drain.
+         * @param res Result
+         * @param nanos Delay for each chunk
+         */
+        SlowDrain(final CompletableFuture<Long> res, final long nanos) {
+            this.res = res;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.sub = subscription;
+            this.sub.request(1L);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer buf) {
+            this.bytes += buf.remaining();
+            LockSupport.parkNanos(this.nanos);
+            this.sub.request(1L);
+        }
+
+        @Override
+        public void onError(final Throwable err) {
+            this.res.completeExceptionally(err);
+        }
+
+        @Override
+        public void onComplete() {
+            this.res.complete(this.bytes);
+        }
+    }
+}
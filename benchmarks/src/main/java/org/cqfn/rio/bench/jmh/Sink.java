@@ -0,0 +1,37 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writable channel which discards all bytes.
+ */
+final class Sink implements WritableByteChannel {
+
+    /**
+     * Open flag.
+     */
+    private volatile boolean open = true;
+
+    @Override
+    public int write(final ByteBuffer src) {
+        final int len = src.remaining();
+        ((Buffer) src).position(src.limit());
+        return len;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    @Override
+    public void close() {
+        this.open = false;
+    }
+}
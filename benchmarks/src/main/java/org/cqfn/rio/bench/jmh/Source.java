@@ -0,0 +1,59 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Readable channel which produces limited amount of bytes without IO.
+ * <p>
+ * It only moves buffer position, so benchmarks measure read loop overhead.
+ * </p>
+ */
+final class Source implements ReadableByteChannel {
+
+    /**
+     * Remaining bytes.
+     */
+    private long remaining;
+
+    /**
+     * Open flag.
+     */
+    private volatile boolean open = true;
+
+    /**
+     * New source channel.
+     * @param size Amount of bytes to produce
+     */
+    Source(final long size) {
+        this.remaining = size;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) {
+        final int res;
+        if (this.remaining <= 0) {
+            res = -1;
+        } else {
+            res = (int) Math.min(dst.remaining(), this.remaining);
+            ((Buffer) dst).position(dst.position() + res);
+            this.remaining -= res;
+        }
+        return res;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    @Override
+    public void close() {
+        this.open = false;
+    }
+}
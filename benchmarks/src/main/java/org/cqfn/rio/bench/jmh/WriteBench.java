@@ -0,0 +1,111 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.bench.jmh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.file.File;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * File write throughput of {@code WritableChannelSubscriber} per write greed.
+ * <p>
+ * The file is written into {@code dir} which is tmpfs-backed {@code /dev/shm}
+ * by default.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class WriteBench {
+
+    /**
+     * Test directory.
+     */
+    @Param("/dev/shm")
+    public String dir;
+
+    /**
+     * Write greed.
+     */
+    @Param({"SINGLE", "CONSTANT", "ADAPTIVE"})
+    public Greeds greed;
+
+    /**
+     * Chunk size.
+     */
+    @Param({"1024", "8192"})
+    public int chunk;
+
+    /**
+     * Amount of chunks.
+     */
+    @Param("1024")
+    public int count;
+
+    /**
+     * Target file.
+     */
+    private Path file;
+
+    /**
+     * Source chunk.
+     */
+    private ByteBuffer src;
+
+    /**
+     * Prepare source data and target file.
+     * @throws IOException On error
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final byte[] data = new byte[this.chunk];
+        new Random(0).nextBytes(data);
+        this.src = ByteBuffer.allocateDirect(this.chunk);
+        this.src.put(data).flip();
+        this.file = Files.createTempFile(Paths.get(this.dir), "rio-write", ".bin");
+    }
+
+    /**
+     * Delete target file.
+     * @throws IOException On error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Write chunks into file.
+     */
+    @Benchmark
+    public void write() {
+        new File(this.file).write(
+            new Chunks(this.src, this.count), this.greed.create(),
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+        ).toCompletableFuture().join();
+    }
+}
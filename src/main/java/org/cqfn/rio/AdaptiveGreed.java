@@ -5,6 +5,8 @@
 
 package org.cqfn.rio;
 
+import org.cqfn.rio.jfr.GreedEvent;
+import org.cqfn.rio.jfr.Jfr;
 import org.reactivestreams.Subscription;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -30,10 +32,17 @@ import java.util.concurrent.atomic.AtomicLong;
  * If the queue size is greater than half of amount on requesting element,
  * the size is reduced twice but no less than 3, and shift is reduced by one
  * of it's not less than 3.
+ * <p>
+ * These rules are {@link GreedPolicy#DEFAULT} policy, other policy can be used
+ * to bound amount, to target bytes instead of chunks or to target latency,
+ * see {@link GreedPolicy} implementations. Shift is still adjusted by the greed:
+ * it's increased if policy increases amount, and decreased if amount shrinks.
+ * </p>
  *
  * @since 0.3
  */
-public final class AdaptiveGreed implements WriteGreed {
+@SuppressWarnings("PMD.TooManyMethods")
+public final class AdaptiveGreed implements WriteGreed, GreedState {
 
     /**
      * Amount to request.
@@ -61,6 +70,36 @@ public final class AdaptiveGreed implements WriteGreed {
      */
     private final AtomicLong queue;
 
+    /**
+     * Queue size in bytes.
+     */
+    private final AtomicLong bytes;
+
+    /**
+     * Chunks processed since last adjustment.
+     */
+    private final AtomicLong done;
+
+    /**
+     * Last received chunk size.
+     */
+    private volatile long chunk;
+
+    /**
+     * Estimated queue latency in nanoseconds.
+     */
+    private volatile long latency;
+
+    /**
+     * Time of last adjustment in nanoseconds.
+     */
+    private volatile long last;
+
+    /**
+     * Control policy.
+     */
+    private final GreedPolicy policy;
+
     /**
      * Adjusting flag instead of synchronisation:
      * write task queue allows only single consumer single producer operations,
@@ -75,8 +114,19 @@ public final class AdaptiveGreed implements WriteGreed {
      * @param amount Amount to request
      * @param shift  Request items before shifted amount was processed
      */
-    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
     public AdaptiveGreed(final long amount, final long shift) {
+        this(amount, shift, GreedPolicy.DEFAULT);
+    }
+
+    /**
+     * New adaptie greed with initial values and control policy.
+     *
+     * @param amount Amount to request
+     * @param shift  Request items before shifted amount was processed
+     * @param policy Control policy
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public AdaptiveGreed(final long amount, final long shift, final GreedPolicy policy) {
         if (amount < 1) {
             throw new IllegalArgumentException("Amount should be greater than 1");
         }
@@ -87,6 +137,10 @@ public final class AdaptiveGreed implements WriteGreed {
         this.shift = shift;
         this.cnt = new AtomicLong();
         this.queue = new AtomicLong();
+        this.bytes = new AtomicLong();
+        this.done = new AtomicLong();
+        this.policy = policy;
+        this.last = System.nanoTime();
         this.adjusting = new AtomicBoolean();
     }
 
@@ -97,23 +151,88 @@ public final class AdaptiveGreed implements WriteGreed {
 
     @Override
     public void received(final Subscription sub) {
-        final long size = this.queue.getAndIncrement();
+        this.received(sub, 0L);
+    }
+
+    @Override
+    public void received(final Subscription sub, final long size) {
+        if (size > 0) {
+            this.bytes.addAndGet(size);
+            this.chunk = size;
+        }
+        this.request(sub, this.queue.getAndIncrement());
+    }
+
+    @Override
+    public void processed(final Subscription sub) {
+        this.processed(sub, 0L);
+    }
+
+    @Override
+    public void processed(final Subscription sub, final long size) {
+        if (size > 0) {
+            this.bytes.addAndGet(-size);
+        }
+        this.done.incrementAndGet();
+        final long queued = this.queue.decrementAndGet();
+        assert queued >= 0 : "processed: conumer drains more elements than produced";
+    }
+
+    @Override
+    public long amount() {
+        return this.amount;
+    }
+
+    @Override
+    public long shift() {
+        return this.shift;
+    }
+
+    @Override
+    public long queue() {
+        return this.queue.get();
+    }
+
+    @Override
+    public long bytes() {
+        return this.bytes.get();
+    }
+
+    @Override
+    public long chunk() {
+        return this.chunk;
+    }
+
+    @Override
+    public long latency() {
+        return this.latency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s(amount=%d, shift=%d, queue=%d, bytes=%d, latency=%dns)",
+            this.getClass().getSimpleName(), this.amount, this.shift,
+            this.queue.get(), this.bytes.get(), this.latency
+        );
+    }
+
+    /**
+     * Count received chunk and request next chunks on requesting point.
+     * @param sub Subscription
+     * @param size Queue size before receiving
+     */
+    private void request(final Subscription sub, final long size) {
         final long pos = this.cnt.incrementAndGet();
         assert size >= 0 : "received: conumer drains more elements than produced";
         assert pos >= 0 : "position can not be negative";
         if (pos == this.amount - this.shift) {
             this.adjust(size);
-            sub.request(amount);
+            sub.request(this.amount);
             this.cnt.addAndGet(-pos);
         }
     }
 
-    @Override
-    public void processed(final Subscription sub) {
-        long size = this.queue.decrementAndGet();
-        assert size >= 0 : "processed: conumer drains more elements than produced";
-    }
-
     /**
      * Adjust requested amount and shift.
      *
@@ -123,21 +242,108 @@ public final class AdaptiveGreed implements WriteGreed {
         if (!this.adjusting.compareAndSet(false, true)) {
             throw new IllegalStateException("Unsupported adjusting enter overlaps");
         }
-
-        if (size < this.shift) {
-            this.amount *= 2;
-            if (this.shift < 3) {
-                this.shift++;
-            }
+        final long prev = this.amount;
+        final long pshift = this.shift;
+        final long now = System.nanoTime();
+        final long processed = this.done.getAndSet(0L);
+        if (processed > 0) {
+            this.latency = size * (now - this.last) / processed;
+        } else if (size > 0) {
+            this.latency = now - this.last;
+        } else {
+            this.latency = 0L;
+        }
+        this.last = now;
+        final long next = Math.max(
+            1L, this.policy.amount(new Point(prev, pshift, size, this))
+        );
+        if (next > prev && this.shift < 3) {
+            this.shift++;
+        }
+        if (next < prev && this.shift > 1) {
+            this.shift--;
         }
-        if (size > this.amount && this.amount > 6) {
-            this.amount /= 2;
-            if (this.shift > 1) {
-                this.shift--;
-            }
+        if (this.shift >= next) {
+            this.shift = next - 1;
+        }
+        this.amount = next;
+        if (Jfr.AVAILABLE && (prev != this.amount || pshift != this.shift)) {
+            new GreedEvent().emit(size, prev, pshift, this.amount, this.shift);
         }
         if (!this.adjusting.compareAndSet(true, false)) {
             throw new IllegalStateException("Adjusting ended illegally");
         }
     }
+
+    /**
+     * Greed state on requesting point.
+     * @since 1.0
+     */
+    private static final class Point implements GreedState {
+
+        /**
+         * Amount.
+         */
+        private final long amnt;
+
+        /**
+         * Shift.
+         */
+        private final long shft;
+
+        /**
+         * Queue size.
+         */
+        private final long size;
+
+        /**
+         * Greed.
+         */
+        private final GreedState greed;
+
+        /**
+         * New point.
+         * @param amnt Amount
+         * @param shft Shift
+         * @param size Queue size before receiving the chunk on requesting point
+         * @param greed Greed
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Point(final long amnt, final long shft, final long size, final GreedState greed) {
+            this.amnt = amnt;
+            this.shft = shft;
+            this.size = size;
+            this.greed = greed;
+        }
+
+        @Override
+        public long amount() {
+            return this.amnt;
+        }
+
+        @Override
+        public long shift() {
+            return this.shft;
+        }
+
+        @Override
+        public long queue() {
+            return this.size;
+        }
+
+        @Override
+        public long bytes() {
+            return this.greed.bytes();
+        }
+
+        @Override
+        public long chunk() {
+            return this.greed.chunk();
+        }
+
+        @Override
+        public long latency() {
+            return this.greed.latency();
+        }
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Subscription;
+
+/**
+ * Write greed with byte budget.
+ * <p>
+ * It tracks bytes of received but not processed chunks and requests more chunks
+ * only while these bytes and expected bytes of requested chunks stay under
+ * the budget of the stream and under the fair share of {@link MemoryBudget}
+ * shared by many streams, it's JVM-wide {@link MemoryBudget#GLOBAL} by default.
+ * Expected size of requested chunk is the size
+ * of last received chunk. It always requests one chunk if nothing is queued or
+ * requested, so the stream makes progress even if chunk is bigger than budget or
+ * global budget is exhausted by other streams.
+ * </p>
+ * @since 1.0
+ */
+public final class BudgetGreed implements WriteGreed {
+
+    /**
+     * Stream budget in bytes.
+     */
+    private final long budget;
+
+    /**
+     * Share of global budget.
+     */
+    private final MemoryBudget.Share share;
+
+    /**
+     * Queued bytes.
+     */
+    private final AtomicLong queued;
+
+    /**
+     * Requested but not received chunks.
+     */
+    private final AtomicLong pending;
+
+    /**
+     * Work in progress counter to serialize subscription requests.
+     */
+    private final AtomicInteger wip;
+
+    /**
+     * Last chunk size.
+     */
+    private volatile long chunk;
+
+    /**
+     * New greed with stream budget.
+     * @param budget Budget in bytes
+     */
+    public BudgetGreed(final long budget) {
+        this(budget, MemoryBudget.GLOBAL);
+    }
+
+    /**
+     * New greed with stream and global budget.
+     * @param budget Budget in bytes
+     * @param global Global budget shared by streams
+     */
+    public BudgetGreed(final long budget, final MemoryBudget global) {
+        if (budget < 1) {
+            throw new IllegalArgumentException("Budget should be greater than 0");
+        }
+        this.budget = budget;
+        this.share = global.share();
+        this.queued = new AtomicLong();
+        this.pending = new AtomicLong();
+        this.wip = new AtomicInteger();
+    }
+
+    @Override
+    public void init(final Subscription sub) {
+        this.more(sub);
+    }
+
+    @Override
+    public void received(final Subscription sub) {
+        this.received(sub, 0L);
+    }
+
+    @Override
+    public void received(final Subscription sub, final long size) {
+        this.pending.updateAndGet(val -> Math.max(0L, val - 1));
+        if (size > 0) {
+            this.chunk = size;
+            this.queued.addAndGet(size);
+            this.share.acquire(size);
+        }
+        this.more(sub);
+    }
+
+    @Override
+    public void processed(final Subscription sub) {
+        this.processed(sub, 0L);
+    }
+
+    @Override
+    public void processed(final Subscription sub, final long size) {
+        if (size > 0) {
+            this.queued.addAndGet(-size);
+            this.share.release(size);
+        }
+        this.more(sub);
+    }
+
+    /**
+     * Queued bytes.
+     * @return Amount of bytes received but not processed
+     */
+    public long queued() {
+        return this.queued.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s(budget=%d, queued=%d, pending=%d, share=%s)",
+            this.getClass().getSimpleName(), this.budget, this.queued.get(),
+            this.pending.get(), this.share
+        );
+    }
+
+    /**
+     * Request more chunks if budget allows.
+     * @param sub Subscription
+     */
+    private void more(final Subscription sub) {
+        if (sub == null || this.wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (missed != 0) {
+            final long count = this.demand();
+            if (count > 0) {
+                this.pending.addAndGet(count);
+                sub.request(count);
+            }
+            missed = this.wip.addAndGet(-missed);
+        }
+    }
+
+    /**
+     * Amount of chunks to request.
+     * @return Amount, zero to withhold demand
+     */
+    private long demand() {
+        final long size = this.chunk;
+        final long pend = this.pending.get();
+        final long queue = this.queued.get();
+        final long res;
+        if (pend == 0 && queue == 0) {
+            res = Math.max(1L, this.fits(size, this.budget));
+        } else if (size == 0) {
+            res = 0L;
+        } else {
+            res = this.fits(size, this.budget - queue - pend * size);
+        }
+        return res;
+    }
+
+    /**
+     * Amount of chunks which fit both stream budget and share of global budget.
+     * @param size Chunk size, zero if unknown
+     * @param room Room in stream budget
+     * @return Amount of chunks
+     */
+    private long fits(final long size, final long room) {
+        final long res;
+        if (size == 0 || room <= 0) {
+            res = 0L;
+        } else {
+            res = Math.min(room, this.share.room()) / size;
+        }
+        return res;
+    }
+}
@@ -69,4 +69,50 @@ public interface Buffers {
             return ByteBuffer.allocateDirect(this.size);
         }
     }
+
+    /**
+     * Heap byte buffers, they are backed by arrays, so stream based
+     * sources and targets can read and write them without copying.
+     * @since 1.0
+     */
+    enum Heap implements Buffers {
+        /**
+         * One kilobyte buffer.
+         */
+        K1(1024),
+        /**
+         * Four kilobytes buffer.
+         */
+        K4(K1.size * 4),
+        /**
+         * Eight kilobytes buffer.
+         */
+        K8(K1.size * 8),
+        /**
+         * Sixteen kilobytes buffer.
+         */
+        K16(K1.size * 16),
+        /**
+         * Sixty four kilobytes buffer.
+         */
+        K64(K1.size * 64);
+
+        /**
+         * Buffer size.
+         */
+        private final int size;
+
+        /**
+         * New heap buffer.
+         * @param size Buffer size
+         */
+        Heap(final int size) {
+            this.size = size;
+        }
+
+        @Override
+        public ByteBuffer create() {
+            return ByteBuffer.allocate(this.size);
+        }
+    }
 }
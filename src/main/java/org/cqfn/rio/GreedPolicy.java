@@ -0,0 +1,207 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+/**
+ * Control policy of {@link AdaptiveGreed}.
+ * <p>
+ * Policy is asked for next amount of chunks on each requesting point
+ * of adaptive greed. Greed increases its shift if amount grows and decreases
+ * it if amount shrinks.
+ * </p>
+ * @since 1.0
+ */
+public interface GreedPolicy {
+
+    /**
+     * Default policy.
+     */
+    GreedPolicy DEFAULT = new Doubling();
+
+    /**
+     * Next amount to request.
+     * @param state Greed state on requesting point
+     * @return Amount of chunks, greater than zero
+     */
+    long amount(GreedState state);
+
+    /**
+     * Doubles amount if consumer's queue is smaller than shift
+     * and halves it if queue is bigger than amount, but keeps it greater
+     * than {@code 6} on halving.
+     * @since 1.0
+     */
+    final class Doubling implements GreedPolicy {
+
+        @Override
+        public long amount(final GreedState state) {
+            long res = state.amount();
+            if (state.queue() < state.shift()) {
+                res *= 2;
+            }
+            // @checkstyle MagicNumberCheck (1 line)
+            if (state.queue() > res && res > 6) {
+                res /= 2;
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Keeps amount of origin policy in bounds.
+     * @since 1.0
+     */
+    final class Bounded implements GreedPolicy {
+
+        /**
+         * Origin policy.
+         */
+        private final GreedPolicy origin;
+
+        /**
+         * Min amount.
+         */
+        private final long min;
+
+        /**
+         * Max amount.
+         */
+        private final long max;
+
+        /**
+         * Bound default policy.
+         * @param min Min amount
+         * @param max Max amount
+         */
+        public Bounded(final long min, final long max) {
+            this(GreedPolicy.DEFAULT, min, max);
+        }
+
+        /**
+         * Bound policy.
+         * @param origin Origin policy
+         * @param min Min amount
+         * @param max Max amount
+         */
+        public Bounded(final GreedPolicy origin, final long min, final long max) {
+            if (min < 1) {
+                throw new IllegalArgumentException("Min amount should be greater than 0");
+            }
+            if (max < min) {
+                throw new IllegalArgumentException("Max amount should not be less than min");
+            }
+            this.origin = origin;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public long amount(final GreedState state) {
+            return Math.max(this.min, Math.min(this.max, this.origin.amount(state)));
+        }
+    }
+
+    /**
+     * Limits amount of origin policy by bytes: requested chunks
+     * should not exceed target amount of bytes.
+     * @since 1.0
+     */
+    final class Bytes implements GreedPolicy {
+
+        /**
+         * Origin policy.
+         */
+        private final GreedPolicy origin;
+
+        /**
+         * Target bytes.
+         */
+        private final long target;
+
+        /**
+         * Limit default policy by bytes.
+         * @param target Target amount of bytes to request
+         */
+        public Bytes(final long target) {
+            this(GreedPolicy.DEFAULT, target);
+        }
+
+        /**
+         * Limit policy by bytes.
+         * @param origin Origin policy
+         * @param target Target amount of bytes to request
+         */
+        public Bytes(final GreedPolicy origin, final long target) {
+            if (target < 1) {
+                throw new IllegalArgumentException("Target bytes should be greater than 0");
+            }
+            this.origin = origin;
+            this.target = target;
+        }
+
+        @Override
+        public long amount(final GreedState state) {
+            long res = this.origin.amount(state);
+            if (state.chunk() > 0) {
+                res = Math.min(res, Math.max(1L, this.target / state.chunk()));
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Latency targeting policy with additive increase and multiplicative decrease:
+     * it halves amount if chunks spend more time in the queue than target latency,
+     * and increases it by step otherwise.
+     * @since 1.0
+     */
+    final class Aimd implements GreedPolicy {
+
+        /**
+         * Target latency in nanoseconds.
+         */
+        private final long target;
+
+        /**
+         * Increase step.
+         */
+        private final long step;
+
+        /**
+         * AIMD policy with increase step of one chunk.
+         * @param target Target latency in nanoseconds
+         */
+        public Aimd(final long target) {
+            this(target, 1L);
+        }
+
+        /**
+         * AIMD policy.
+         * @param target Target latency in nanoseconds
+         * @param step Increase step
+         */
+        public Aimd(final long target, final long step) {
+            if (target < 1) {
+                throw new IllegalArgumentException("Target latency should be greater than 0");
+            }
+            if (step < 1) {
+                throw new IllegalArgumentException("Step should be greater than 0");
+            }
+            this.target = target;
+            this.step = step;
+        }
+
+        @Override
+        public long amount(final GreedState state) {
+            final long res;
+            if (state.latency() > this.target) {
+                res = Math.max(1L, state.amount() / 2);
+            } else {
+                res = state.amount() + this.step;
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+/**
+ * State of adaptive write greed.
+ * @since 1.0
+ */
+public interface GreedState {
+
+    /**
+     * Amount of chunks to request.
+     * @return Amount
+     */
+    long amount();
+
+    /**
+     * Request shift.
+     * @return Shift
+     */
+    long shift();
+
+    /**
+     * Chunks received but not processed yet.
+     * @return Queue size
+     */
+    long queue();
+
+    /**
+     * Bytes received but not processed yet.
+     * @return Amount of bytes
+     */
+    long bytes();
+
+    /**
+     * Size of last received chunk.
+     * @return Amount of bytes, zero if unknown
+     */
+    long chunk();
+
+    /**
+     * Estimated time which chunks spend in the queue before processing.
+     * @return Nanoseconds
+     */
+    long latency();
+}
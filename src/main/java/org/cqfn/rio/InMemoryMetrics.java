@@ -0,0 +1,314 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * In-memory IO metrics.
+ * <p>
+ * It counts events with striped {@link LongAdder}s, so it's cheap to leave
+ * it enabled for concurrent streams. Metrics can be chained: use one instance
+ * per stream with shared parent instance to get per-stream and global counters
+ * at the same time. Use {@link #register(String)} to export counters via JMX.
+ * </p>
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class InMemoryMetrics implements IoMetrics, IoMetricsMXBean {
+
+    /**
+     * Parent metrics.
+     */
+    private final IoMetrics parent;
+
+    /**
+     * Bytes read.
+     */
+    private final LongAdder rbytes;
+
+    /**
+     * Bytes written.
+     */
+    private final LongAdder wbytes;
+
+    /**
+     * Read calls.
+     */
+    private final LongAdder rcalls;
+
+    /**
+     * Write calls.
+     */
+    private final LongAdder wcalls;
+
+    /**
+     * Read time.
+     */
+    private final LongAdder rnanos;
+
+    /**
+     * Write time.
+     */
+    private final LongAdder wnanos;
+
+    /**
+     * Force calls.
+     */
+    private final LongAdder syncs;
+
+    /**
+     * Force time.
+     */
+    private final LongAdder snanos;
+
+    /**
+     * Buffers allocated.
+     */
+    private final LongAdder buffers;
+
+    /**
+     * Buffers bytes allocated.
+     */
+    private final LongAdder bbytes;
+
+    /**
+     * Max queue depth.
+     */
+    private final LongAccumulator depth;
+
+    /**
+     * Queue depth sum.
+     */
+    private final LongAdder depths;
+
+    /**
+     * Queue depth samples.
+     */
+    private final LongAdder samples;
+
+    /**
+     * Drain loop iterations.
+     */
+    private final LongAdder iterations;
+
+    /**
+     * Idle spins.
+     */
+    private final LongAdder spins;
+
+    /**
+     * Executor hops.
+     */
+    private final LongAdder hops;
+
+    /**
+     * New metrics.
+     */
+    public InMemoryMetrics() {
+        this(IoMetrics.NOOP);
+    }
+
+    /**
+     * New metrics which report all events to parent too.
+     * @param parent Parent metrics
+     */
+    public InMemoryMetrics(final IoMetrics parent) {
+        this.parent = parent;
+        this.rbytes = new LongAdder();
+        this.wbytes = new LongAdder();
+        this.rcalls = new LongAdder();
+        this.wcalls = new LongAdder();
+        this.rnanos = new LongAdder();
+        this.wnanos = new LongAdder();
+        this.syncs = new LongAdder();
+        this.snanos = new LongAdder();
+        this.buffers = new LongAdder();
+        this.bbytes = new LongAdder();
+        this.depth = new LongAccumulator(Math::max, 0L);
+        this.depths = new LongAdder();
+        this.samples = new LongAdder();
+        this.iterations = new LongAdder();
+        this.spins = new LongAdder();
+        this.hops = new LongAdder();
+    }
+
+    /**
+     * Register metrics in platform MBean server.
+     * @param name Metrics name
+     * @return Object name of registered MBean
+     * @throws JMException If failed to register
+     */
+    public ObjectName register(final String name) throws JMException {
+        final ObjectName oname = new ObjectName(
+            String.format("org.cqfn.rio:type=IoMetrics,name=%s", ObjectName.quote(name))
+        );
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, oname);
+        return oname;
+    }
+
+    @Override
+    public void read(final long bytes, final long nanos) {
+        this.rcalls.increment();
+        if (bytes > 0) {
+            this.rbytes.add(bytes);
+        }
+        this.rnanos.add(nanos);
+        this.parent.read(bytes, nanos);
+    }
+
+    @Override
+    public void written(final long bytes, final long nanos) {
+        this.wcalls.increment();
+        this.wbytes.add(bytes);
+        this.wnanos.add(nanos);
+        this.parent.written(bytes, nanos);
+    }
+
+    @Override
+    public void synced(final long nanos) {
+        this.syncs.increment();
+        this.snanos.add(nanos);
+        this.parent.synced(nanos);
+    }
+
+    @Override
+    public void allocated(final int bytes) {
+        this.buffers.increment();
+        this.bbytes.add(bytes);
+        this.parent.allocated(bytes);
+    }
+
+    @Override
+    public void queued(final int size) {
+        this.depth.accumulate(size);
+        this.depths.add(size);
+        this.samples.increment();
+        this.parent.queued(size);
+    }
+
+    @Override
+    public void iteration() {
+        this.iterations.increment();
+        this.parent.iteration();
+    }
+
+    @Override
+    public void spin() {
+        this.spins.increment();
+        this.parent.spin();
+    }
+
+    @Override
+    public void hop() {
+        this.hops.increment();
+        this.parent.hop();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return this.rbytes.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return this.wbytes.sum();
+    }
+
+    @Override
+    public long getReadCalls() {
+        return this.rcalls.sum();
+    }
+
+    @Override
+    public long getWriteCalls() {
+        return this.wcalls.sum();
+    }
+
+    @Override
+    public long getReadNanos() {
+        return this.rnanos.sum();
+    }
+
+    @Override
+    public long getWriteNanos() {
+        return this.wnanos.sum();
+    }
+
+    @Override
+    public long getBuffersAllocated() {
+        return this.buffers.sum();
+    }
+
+    @Override
+    public long getBufferBytes() {
+        return this.bbytes.sum();
+    }
+
+    @Override
+    public long getSyncCalls() {
+        return this.syncs.sum();
+    }
+
+    @Override
+    public long getSyncNanos() {
+        return this.snanos.sum();
+    }
+
+    @Override
+    public long getMaxQueueDepth() {
+        return this.depth.get();
+    }
+
+    @Override
+    public double getMeanQueueDepth() {
+        final long cnt = this.samples.sum();
+        final double res;
+        if (cnt == 0) {
+            res = 0.0;
+        } else {
+            res = (double) this.depths.sum() / cnt;
+        }
+        return res;
+    }
+
+    @Override
+    public long getDrainIterations() {
+        return this.iterations.sum();
+    }
+
+    @Override
+    public long getIdleSpins() {
+        return this.spins.sum();
+    }
+
+    @Override
+    public long getExecutorHops() {
+        return this.hops.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            String.join(
+                "",
+                "read: %d bytes in %d calls (%d ns), written: %d bytes in %d calls (%d ns), ",
+                "synced: %d calls (%d ns), ",
+                "buffers: %d (%d bytes), queue depth: max %d, mean %.2f, ",
+                "iterations: %d, spins: %d, hops: %d"
+            ),
+            this.getBytesRead(), this.getReadCalls(), this.getReadNanos(),
+            this.getBytesWritten(), this.getWriteCalls(), this.getWriteNanos(),
+            this.getSyncCalls(), this.getSyncNanos(),
+            this.getBuffersAllocated(), this.getBufferBytes(),
+            this.getMaxQueueDepth(), this.getMeanQueueDepth(),
+            this.getDrainIterations(), this.getIdleSpins(), this.getExecutorHops()
+        );
+    }
+}
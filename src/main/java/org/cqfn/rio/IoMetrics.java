@@ -0,0 +1,101 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+/**
+ * IO metrics SPI.
+ * <p>
+ * Read and write task queues report their events to metrics instance
+ * from IO threads, so implementations must be thread safe and cheap enough
+ * to not slow down IO. All methods do nothing by default, see
+ * {@link InMemoryMetrics} for implementation with counters. Callers skip
+ * timing of channel calls and reading of queue depth if metrics are not
+ * {@link #enabled()}.
+ * </p>
+ * @since 1.0
+ */
+public interface IoMetrics {
+
+    /**
+     * Metrics which do nothing.
+     */
+    IoMetrics NOOP = new IoMetrics() {
+        @Override
+        public boolean enabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Check if metrics use reported events.
+     * @return False if events are ignored and need not be measured
+     */
+    default boolean enabled() {
+        return true;
+    }
+
+    /**
+     * Channel read call.
+     * @param bytes Bytes read, negative on end of stream
+     * @param nanos Time blocked in channel call in nanoseconds
+     */
+    default void read(final long bytes, final long nanos) {
+        // do nothing
+    }
+
+    /**
+     * Channel write call.
+     * @param bytes Bytes written
+     * @param nanos Time blocked in channel call in nanoseconds
+     */
+    default void written(final long bytes, final long nanos) {
+        // do nothing
+    }
+
+    /**
+     * File channel was forced to the storage device.
+     * @param nanos Time blocked in force call in nanoseconds
+     */
+    default void synced(final long nanos) {
+        // do nothing
+    }
+
+    /**
+     * Buffer allocated for read.
+     * @param bytes Buffer capacity
+     */
+    default void allocated(final int bytes) {
+        // do nothing
+    }
+
+    /**
+     * Request was added to task queue.
+     * @param depth Queue depth after adding
+     */
+    default void queued(final int depth) {
+        // do nothing
+    }
+
+    /**
+     * Drain loop of task queue processed a request.
+     */
+    default void iteration() {
+        // do nothing
+    }
+
+    /**
+     * Drain loop of task queue spent idle spin waiting for next request.
+     */
+    default void spin() {
+        // do nothing
+    }
+
+    /**
+     * Task queue submitted drain loop to executor.
+     */
+    default void hop() {
+        // do nothing
+    }
+}
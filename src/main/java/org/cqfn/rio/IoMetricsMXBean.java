@@ -0,0 +1,102 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+/**
+ * JMX view of IO metrics.
+ * @since 1.0
+ */
+public interface IoMetricsMXBean {
+
+    /**
+     * Bytes read from channels.
+     * @return Amount of bytes
+     */
+    long getBytesRead();
+
+    /**
+     * Bytes written to channels.
+     * @return Amount of bytes
+     */
+    long getBytesWritten();
+
+    /**
+     * Channel read calls.
+     * @return Amount of calls
+     */
+    long getReadCalls();
+
+    /**
+     * Channel write calls.
+     * @return Amount of calls
+     */
+    long getWriteCalls();
+
+    /**
+     * Time blocked in channel read calls.
+     * @return Nanoseconds
+     */
+    long getReadNanos();
+
+    /**
+     * Time blocked in channel write calls.
+     * @return Nanoseconds
+     */
+    long getWriteNanos();
+
+    /**
+     * Buffers allocated for reads.
+     * @return Amount of buffers
+     */
+    long getBuffersAllocated();
+
+    /**
+     * Bytes of buffers allocated for reads.
+     * @return Amount of bytes
+     */
+    long getBufferBytes();
+
+    /**
+     * Force calls of file channels.
+     * @return Amount of calls
+     */
+    long getSyncCalls();
+
+    /**
+     * Time blocked in force calls.
+     * @return Nanoseconds
+     */
+    long getSyncNanos();
+
+    /**
+     * Max observed task queue depth.
+     * @return Amount of requests
+     */
+    long getMaxQueueDepth();
+
+    /**
+     * Mean observed task queue depth.
+     * @return Amount of requests
+     */
+    double getMeanQueueDepth();
+
+    /**
+     * Requests processed by drain loops.
+     * @return Amount of iterations
+     */
+    long getDrainIterations();
+
+    /**
+     * Idle spins of drain loops.
+     * @return Amount of spins
+     */
+    long getIdleSpins();
+
+    /**
+     * Drain loop submissions to executor.
+     * @return Amount of executor hops
+     */
+    long getExecutorHops();
+}
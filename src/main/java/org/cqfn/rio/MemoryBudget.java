@@ -0,0 +1,360 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memory budget shared by many streams.
+ * <p>
+ * Streams add bytes they hold in memory to the budget and release them
+ * when processed. Budget doesn't block or fail: streams take a {@link Share}
+ * of the budget and withhold their demand when the share has no room.
+ * </p>
+ * <p>
+ * Each stream which holds memory gets a fair share of the limit, it's the limit
+ * divided by the amount of such streams. Stream is never throttled below its
+ * fair share, and can use more than the fair share while the budget is not exhausted.
+ * Since fair shares of all streams are not greater than the limit,
+ * memory usage can't grow more than twice of the limit.
+ * </p>
+ * <p>
+ * {@link #GLOBAL} is JVM-wide governor which is used by channel readers and
+ * by {@link BudgetGreed} writers by default, its limit is configured by
+ * {@code org.cqfn.rio.MemoryBudget#limit} system property in bytes, it's unlimited
+ * if property is not set. Unlimited budget doesn't track memory usage, all its
+ * operations are no-op. Readers account buffers only until they are passed
+ * to subscriber. Writers with other greed levels, including default adaptive
+ * greed, don't draw from the budget, so the limit doesn't cover their queues:
+ * use {@link BudgetGreed} to include writes.
+ * </p>
+ * @since 1.0
+ */
+public final class MemoryBudget {
+
+    /**
+     * Unlimited budget, it doesn't track memory usage.
+     */
+    public static final MemoryBudget UNLIMITED = new MemoryBudget(Long.MAX_VALUE, false);
+
+    /**
+     * JVM-wide memory budget from system {@code org.cqfn.rio.MemoryBudget#limit} property.
+     */
+    public static final MemoryBudget GLOBAL = MemoryBudget.of(
+        Long.getLong("org.cqfn.rio.MemoryBudget#limit", Long.MAX_VALUE)
+    );
+
+    /**
+     * Limit in bytes.
+     */
+    private final long limit;
+
+    /**
+     * Track memory usage.
+     */
+    private final boolean track;
+
+    /**
+     * Used bytes.
+     */
+    private final LongAdder used;
+
+    /**
+     * Amount of streams which hold memory.
+     */
+    private final LongAdder streams;
+
+    /**
+     * Streams waiting for released memory.
+     */
+    private final Queue<Waiter> waiters;
+
+    /**
+     * New memory budget.
+     * @param limit Limit in bytes
+     */
+    public MemoryBudget(final long limit) {
+        this(limit, true);
+    }
+
+    /**
+     * Primary constructor.
+     * @param limit Limit in bytes
+     * @param track Track memory usage
+     */
+    private MemoryBudget(final long limit, final boolean track) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit should be greater than 0");
+        }
+        this.limit = limit;
+        this.track = track;
+        this.used = new LongAdder();
+        this.streams = new LongAdder();
+        this.waiters = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Budget limit.
+     * @return Limit in bytes
+     */
+    public long limit() {
+        return this.limit;
+    }
+
+    /**
+     * Memory in use.
+     * @return Amount of bytes
+     */
+    public long used() {
+        return this.used.sum();
+    }
+
+    /**
+     * Memory available.
+     * @return Amount of bytes
+     */
+    public long available() {
+        final long res;
+        if (this.limit == Long.MAX_VALUE) {
+            res = Long.MAX_VALUE;
+        } else {
+            res = Math.max(0L, this.limit - this.used.sum());
+        }
+        return res;
+    }
+
+    /**
+     * Amount of streams which hold memory.
+     * @return Amount of streams
+     */
+    public long streams() {
+        return this.streams.sum();
+    }
+
+    /**
+     * New share of this budget for a stream.
+     * @return Share
+     */
+    public Share share() {
+        return new Share(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d/%d bytes by %d streams", this.used.sum(), this.limit, this.streams.sum()
+        );
+    }
+
+    /**
+     * Budget of limit, it doesn't track memory usage if limit is
+     * {@link Long#MAX_VALUE}.
+     * @param limit Limit in bytes
+     * @return Memory budget
+     */
+    private static MemoryBudget of(final long limit) {
+        return new MemoryBudget(limit, limit != Long.MAX_VALUE);
+    }
+
+    /**
+     * Add used bytes.
+     * @param bytes Amount of bytes
+     */
+    void acquire(final long bytes) {
+        if (this.track) {
+            this.used.add(bytes);
+        }
+    }
+
+    /**
+     * Release used bytes and wake waiters which fit now.
+     * @param bytes Amount of bytes
+     */
+    void release(final long bytes) {
+        if (this.track) {
+            this.used.add(-bytes);
+            this.wake();
+        }
+    }
+
+    /**
+     * Wake waiters which fit now, in order of arrival. The first of them is woken
+     * if it fits its share, next ones only if released memory is not taken
+     * by previous waiters yet, so release doesn't wake more streams than
+     * the budget can take. Waiter is owned by the thread which removed
+     * it from the queue, so it's woken once.
+     */
+    private void wake() {
+        long room = this.available();
+        boolean first = true;
+        final Iterator<Waiter> iter = this.waiters.iterator();
+        while (iter.hasNext() && (first || room > 0)) {
+            final Waiter next = iter.next();
+            if (next.share.fits(next.bytes) && (first || next.bytes <= room)
+                && this.waiters.remove(next)) {
+                room -= next.bytes;
+                first = false;
+                next.action.run();
+            }
+        }
+    }
+
+    /**
+     * Share of memory budget used by single stream.
+     * @since 1.0
+     */
+    public static final class Share {
+
+        /**
+         * Budget.
+         */
+        private final MemoryBudget budget;
+
+        /**
+         * Used bytes of this share.
+         */
+        private final AtomicLong used;
+
+        /**
+         * New share.
+         * @param budget Budget
+         */
+        Share(final MemoryBudget budget) {
+            this.budget = budget;
+            this.used = new AtomicLong();
+        }
+
+        /**
+         * Memory used by this share.
+         * @return Amount of bytes
+         */
+        public long used() {
+            return this.used.get();
+        }
+
+        /**
+         * Memory which this share can acquire without exceeding
+         * neither fair share nor budget limit.
+         * @return Amount of bytes
+         */
+        public long room() {
+            final long res;
+            if (this.budget.track && this.budget.limit != Long.MAX_VALUE) {
+                final long own = this.used.get();
+                long active = this.budget.streams();
+                if (own == 0) {
+                    ++active;
+                }
+                res = Math.max(
+                    Math.max(0L, this.budget.limit / Math.max(1L, active) - own),
+                    this.budget.available()
+                );
+            } else {
+                res = Long.MAX_VALUE;
+            }
+            return res;
+        }
+
+        /**
+         * Check if this share can acquire memory. It's always true if budget
+         * is not used by other shares, so the stream can make progress even if
+         * requested amount is greater than the limit.
+         * @param bytes Amount of bytes
+         * @return True if fits
+         */
+        public boolean fits(final long bytes) {
+            return bytes <= this.room() || this.budget.used() <= this.used.get();
+        }
+
+        /**
+         * Acquire memory.
+         * @param bytes Amount of bytes
+         */
+        public void acquire(final long bytes) {
+            if (this.budget.track && bytes > 0) {
+                if (this.used.getAndAdd(bytes) == 0) {
+                    this.budget.streams.increment();
+                }
+                this.budget.acquire(bytes);
+            }
+        }
+
+        /**
+         * Release memory.
+         * @param bytes Amount of bytes
+         */
+        public void release(final long bytes) {
+            if (this.budget.track && bytes > 0) {
+                if (this.used.addAndGet(-bytes) == 0) {
+                    this.budget.streams.decrement();
+                }
+                this.budget.release(bytes);
+            }
+        }
+
+        /**
+         * Run the action once when requested amount fits, it runs
+         * the action immediately if it fits already. Otherwise, the action
+         * is run by the thread which released memory, so it should only
+         * submit the work to the executor of the stream.
+         * @param bytes Amount of bytes to wait for
+         * @param action Action to run
+         */
+        public void await(final long bytes, final Runnable action) {
+            if (this.fits(bytes)) {
+                action.run();
+            } else {
+                final Waiter waiter = new Waiter(this, bytes, action);
+                this.budget.waiters.add(waiter);
+                if (this.fits(bytes) && this.budget.waiters.remove(waiter)) {
+                    action.run();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d bytes of %s", this.used.get(), this.budget);
+        }
+    }
+
+    /**
+     * Stream waiting for released memory.
+     * @since 1.0
+     */
+    private static final class Waiter {
+
+        /**
+         * Share of the stream.
+         */
+        private final Share share;
+
+        /**
+         * Amount of bytes to wait for.
+         */
+        private final long bytes;
+
+        /**
+         * Action to run.
+         */
+        private final Runnable action;
+
+        /**
+         * New waiter.
+         * @param share Share of the stream
+         * @param bytes Amount of bytes to wait for
+         * @param action Action to run
+         */
+        Waiter(final Share share, final long bytes, final Runnable action) {
+            this.share = share;
+            this.bytes = bytes;
+            this.action = action;
+        }
+    }
+}
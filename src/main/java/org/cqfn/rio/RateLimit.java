@@ -0,0 +1,162 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limit of IO streams.
+ * <p>
+ * Streams consume bytes from the bucket after read or write operation,
+ * and ask for a delay before next operation: it's a time when consumed bytes
+ * are paid back with the rate. The bucket holds up to {@code burst} bytes,
+ * so idle stream can transfer it without delays. Streams don't block threads
+ * while waiting, they schedule resume of processing after the delay.
+ * </p>
+ * <p>
+ * Rate limit can be used by single stream, or it can be shared by a group
+ * of streams to limit their total bandwidth.
+ * </p>
+ * @since 1.0
+ */
+public final class RateLimit {
+
+    /**
+     * No rate limit.
+     */
+    public static final RateLimit UNLIMITED = new RateLimit(Long.MAX_VALUE);
+
+    /**
+     * Nanoseconds in one second.
+     */
+    private static final double SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Rate in bytes per second.
+     */
+    private final long rate;
+
+    /**
+     * Time to transfer one byte in nanoseconds.
+     */
+    private final double cost;
+
+    /**
+     * Time to transfer burst bytes in nanoseconds.
+     */
+    private final long burst;
+
+    /**
+     * Time when all consumed bytes are paid back.
+     */
+    private final AtomicLong paid;
+
+    /**
+     * New rate limit with burst of one second.
+     * @param rate Rate in bytes per second
+     */
+    public RateLimit(final long rate) {
+        this(rate, rate);
+    }
+
+    /**
+     * New rate limit.
+     * @param rate Rate in bytes per second
+     * @param burst Bucket size in bytes
+     */
+    public RateLimit(final long rate, final long burst) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Rate should be greater than 0");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst should be greater than 0");
+        }
+        this.rate = rate;
+        this.cost = RateLimit.SECOND / rate;
+        this.burst = (long) (burst * this.cost);
+        this.paid = new AtomicLong(System.nanoTime() - this.burst);
+    }
+
+    /**
+     * Rate limit.
+     * @return Rate in bytes per second
+     */
+    public long rate() {
+        return this.rate;
+    }
+
+    /**
+     * Consume transferred bytes from the bucket.
+     * @param bytes Amount of bytes
+     */
+    public void consume(final long bytes) {
+        if (this.rate != Long.MAX_VALUE && bytes > 0) {
+            final long nanos = (long) (bytes * this.cost);
+            long prev;
+            long next;
+            do {
+                prev = this.paid.get();
+                next = Math.max(prev, System.nanoTime() - this.burst) + nanos;
+            } while (!this.paid.compareAndSet(prev, next));
+        }
+    }
+
+    /**
+     * Delay before next operation.
+     * @return Delay in nanoseconds, zero if operation can be performed now
+     */
+    public long delay() {
+        final long res;
+        if (this.rate == Long.MAX_VALUE) {
+            res = 0L;
+        } else {
+            res = Math.max(0L, this.paid.get() - System.nanoTime());
+        }
+        return res;
+    }
+
+    /**
+     * Schedule the action after the delay, the action should not block,
+     * it's expected to submit the work to IO executor.
+     * @param nanos Delay in nanoseconds
+     * @param action Action to run
+     */
+    public void schedule(final long nanos, final Runnable action) {
+        Timer.EXEC.schedule(action, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%d B/s)", this.getClass().getSimpleName(), this.rate);
+    }
+
+    /**
+     * Timer of delayed actions, it's created on first usage.
+     * @since 1.0
+     */
+    private static final class Timer {
+
+        /**
+         * Single daemon thread scheduler.
+         */
+        private static final ScheduledExecutorService EXEC =
+            Executors.newSingleThreadScheduledExecutor(
+                task -> {
+                    final Thread thread = new Thread(task, "rio-rate-limit");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+
+        /**
+         * Utility class.
+         */
+        private Timer() {
+        }
+    }
+}
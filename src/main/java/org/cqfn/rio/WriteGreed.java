@@ -48,6 +48,24 @@ public interface WriteGreed {
         // do nothing
     }
 
+    /**
+     * Received next chunk of known size from subscription.
+     * @param sub Subscription
+     * @param size Chunk size in bytes
+     */
+    default void received(final Subscription sub, final long size) {
+        this.received(sub);
+    }
+
+    /**
+     * Processed chunk of known size.
+     * @param sub Subscription
+     * @param size Chunk size in bytes
+     */
+    default void processed(final Subscription sub, final long size) {
+        this.processed(sub);
+    }
+
     /**
      * Try to convert into adaptive mode.
      * @return Adaptive greed if applicable.
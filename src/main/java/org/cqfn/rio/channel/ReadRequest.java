@@ -8,8 +8,15 @@ import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
 import java.util.logging.Logger;
 import org.cqfn.rio.Buffers;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.MemoryBudget;
+import org.cqfn.rio.RateLimit;
+import org.cqfn.rio.jfr.ChannelReadEvent;
+import org.cqfn.rio.jfr.Jfr;
 
 /**
  * Read request.
@@ -42,11 +49,27 @@ abstract class ReadRequest {
     /**
      * Process file channel.
      * @param channel Channel to process
+     * @return False if request was paused and should be resumed
      */
-    abstract void process(ReadableByteChannel channel);
+    abstract boolean process(ReadableByteChannel channel);
+
+    /**
+     * Resume paused request, it runs the action when request can be processed again.
+     * @param action Action to run
+     */
+    abstract void resume(Runnable action);
 
     /**
      * Next request.
+     * <p>
+     * It allocates buffers from memory budget share, and releases them when
+     * buffer is passed to the subscriber, so reads never wait for the subscriber
+     * to consume buffers. If share has no room for next buffer, request stops
+     * and keeps allocated buffer to continue reading from the same position
+     * when memory is released. Also, it pauses before next read if rate limit
+     * asks for a delay, and pauses when non-blocking channel is not readable
+     * until selector reports it's ready.
+     * </p>
      * @since 0.1
      */
     static final class Next extends ReadRequest {
@@ -61,72 +84,195 @@ abstract class ReadRequest {
          */
         private final long count;
 
+        /**
+         * IO metrics.
+         */
+        private final IoMetrics metrics;
+
+        /**
+         * Memory budget share.
+         */
+        private final MemoryBudget.Share share;
+
+        /**
+         * Rate limit.
+         */
+        private final RateLimit limit;
+
+        /**
+         * Processed count.
+         */
+        private long done;
+
+        /**
+         * Allocated buffer which was not read because of memory budget.
+         */
+        private ByteBuffer spare;
+
+        /**
+         * Delay of paused request in nanoseconds.
+         */
+        private long delay;
+
+        /**
+         * Non-blocking channel which is not ready for read.
+         */
+        private SelectableChannel pending;
+
         /**
          * New read request.
          * @param sub Subscriber
          * @param buffers Buffer allocation strategy
          * @param count Amount of requests
+         * @param metrics IO metrics
+         * @param share Memory budget share
+         * @param limit Rate limit
+         * @checkstyle ParameterNumberCheck (5 lines)
          */
         Next(final ReadSubscriberState<? super ByteBuffer> sub, final Buffers buffers,
-            final long count) {
+            final long count, final IoMetrics metrics, final MemoryBudget.Share share,
+            final RateLimit limit) {
             super(sub);
             this.buffers = buffers;
             this.count = count;
+            this.metrics = metrics;
+            this.share = share;
+            this.limit = limit;
         }
 
-        // @checkstyle ReturnCountCheck (50 lines)
         @Override
-        @SuppressWarnings({"PMD.OnlyOneReturn", "PMD.AvoidCatchingGenericException"})
-        void process(final ReadableByteChannel channel) {
-            for (int cnt = 0; cnt < this.count; ++cnt) {
+        @SuppressWarnings("PMD.OnlyOneReturn")
+        boolean process(final ReadableByteChannel channel) {
+            while (this.done < this.count) {
                 if (this.sub.done()) {
-                    return;
+                    return true;
+                }
+                this.delay = this.limit.delay();
+                if (this.delay > 0) {
+                    return false;
+                }
+                final ByteBuffer buf;
+                if (this.spare == null) {
+                    buf = this.buffers.create();
+                    this.metrics.allocated(buf.capacity());
+                } else {
+                    buf = this.spare;
+                    this.spare = null;
+                }
+                final int size = buf.capacity();
+                if (!this.share.fits(size)) {
+                    this.spare = buf;
+                    return false;
+                }
+                this.share.acquire(size);
+                if (!this.read(channel, buf)) {
+                    return true;
                 }
-                final ByteBuffer buf = this.buffers.create();
-                final int read;
+                if (this.pending != null) {
+                    this.spare = buf;
+                    return false;
+                }
+                ++this.done;
+            }
+            return true;
+        }
+
+        @Override
+        void resume(final Runnable action) {
+            if (this.delay > 0) {
+                this.limit.schedule(this.delay, action);
+            } else if (this.pending != null) {
+                final SelectableChannel chan = this.pending;
+                this.pending = null;
+                Selectors.SHARED.await(chan, SelectionKey.OP_READ, action);
+            } else {
+                this.share.await(this.spare.capacity(), action);
+            }
+        }
+
+        /**
+         * Read channel into the buffer and pass it to subscriber. Acquired memory
+         * of the buffer is released when it's passed to subscriber, or right
+         * after the read if nothing is passed.
+         * @param channel Channel to read
+         * @param buf Buffer to read into
+         * @return False if stream is terminated, it's true if non-blocking
+         *  channel is not ready and nothing was read
+         */
+        // @checkstyle ReturnCountCheck (50 lines)
+        @SuppressWarnings({"PMD.OnlyOneReturn", "PMD.AvoidCatchingGenericException"})
+        private boolean read(final ReadableByteChannel channel, final ByteBuffer buf) {
+            final int read;
+            final int size = buf.capacity();
+            try {
+                ChannelReadEvent event = null;
+                if (Jfr.AVAILABLE && ChannelReadEvent.enabled()) {
+                    event = new ChannelReadEvent();
+                    event.begin();
+                }
+                final boolean timed = this.metrics.enabled();
+                long start = 0L;
+                if (timed) {
+                    start = System.nanoTime();
+                }
+                read = channel.read(buf);
+                if (timed) {
+                    this.metrics.read(read, System.nanoTime() - start);
+                }
+                this.limit.consume(read);
+                if (event != null) {
+                    event.finish(read);
+                }
+                if (read == 0 && Selectors.nonBlocking(channel)) {
+                    this.share.release(size);
+                    this.pending = (SelectableChannel) channel;
+                    return true;
+                }
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final IOException | RuntimeException iex) {
+                this.share.release(size);
                 try {
-                    read = channel.read(buf);
-                } catch (final IOException iex) {
+                    channel.close();
+                } catch (final IOException cex) {
+                    this.logger.warning(
+                        String.format(
+                            "Failed to close channel on errors: %s", cex
+                        )
+                    );
+                }
+                this.sub.onError(iex);
+                return false;
+            }
+            ((Buffer) buf).flip();
+            if (read >= 0) {
+                this.share.release(size);
+                try {
+                    this.sub.onNext(buf);
+                    // @checkstyle IllegalCatchCheck (1 line)
+                } catch (final Exception exx) {
                     try {
                         channel.close();
                     } catch (final IOException cex) {
                         this.logger.warning(
                             String.format(
-                                "Failed to close channel on errors: %s", cex
+                                "Failed to close channel on next error: %s", cex
                             )
                         );
                     }
-                    this.sub.onError(iex);
-                    return;
+                    this.sub.onError(exx);
+                    return false;
                 }
-                ((Buffer) buf).flip();
-                if (read >= 0) {
-                    try {
-                        this.sub.onNext(buf);
-                        // @checkstyle IllegalCatchCheck (1 line)
-                    } catch (final Exception exx) {
-                        try {
-                            channel.close();
-                        } catch (final IOException cex) {
-                            this.logger.warning(
-                                String.format(
-                                    "Failed to close channel on next error: %s", cex
-                                )
-                            );
-                        }
-                        this.sub.onError(exx);
-                        return;
-                    }
-                } else {
-                    try {
-                        channel.close();
-                        this.sub.onComplete();
-                    } catch (final IOException iex) {
-                        this.sub.onError(iex);
-                    }
-                    return;
+            } else {
+                this.share.release(size);
+                try {
+                    channel.close();
+                    this.sub.onComplete();
+                } catch (final IOException iex) {
+                    this.sub.onError(iex);
                 }
+                return false;
             }
+            return true;
         }
     }
 }
@@ -5,6 +5,8 @@
 package org.cqfn.rio.channel;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import org.cqfn.rio.jfr.Jfr;
+import org.cqfn.rio.jfr.SubscriptionEvent;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
@@ -36,6 +38,7 @@ final class ReadSubscriberState<T> implements Subscriber<T> {
 
     @Override
     public void onSubscribe(final Subscription subscription) {
+        ReadSubscriberState.signal("subscribe");
         this.origin.onSubscribe(subscription);
     }
 
@@ -47,6 +50,7 @@ final class ReadSubscriberState<T> implements Subscriber<T> {
     @Override
     public void onError(final Throwable err) {
         if (this.completed.compareAndSet(false, true)) {
+            ReadSubscriberState.signal("error");
             this.origin.onError(err);
         }
     }
@@ -54,6 +58,7 @@ final class ReadSubscriberState<T> implements Subscriber<T> {
     @Override
     public void onComplete() {
         if (this.completed.compareAndSet(false, true)) {
+            ReadSubscriberState.signal("complete");
             this.origin.onComplete();
         }
     }
@@ -62,7 +67,9 @@ final class ReadSubscriberState<T> implements Subscriber<T> {
      * Cancel subscription.
      */
     public void cancel() {
-        this.completed.set(true);
+        if (!this.completed.getAndSet(true)) {
+            ReadSubscriberState.signal("cancel");
+        }
     }
 
     /**
@@ -72,4 +79,14 @@ final class ReadSubscriberState<T> implements Subscriber<T> {
     public boolean done() {
         return this.completed.get();
     }
+
+    /**
+     * Emit subscription lifecycle event.
+     * @param name Signal name
+     */
+    private static void signal(final String name) {
+        if (Jfr.AVAILABLE) {
+            new SubscriptionEvent().emit("read", name);
+        }
+    }
 }
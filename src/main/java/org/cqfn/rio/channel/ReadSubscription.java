@@ -53,7 +53,12 @@ final class ReadSubscription implements Subscription {
                 new IllegalArgumentException(String.format("Requested %d items", count))
             );
         } else {
-            this.queue.accept(new ReadRequest.Next(this.sub, this.buffers, count));
+            this.queue.accept(
+                new ReadRequest.Next(
+                    this.sub, this.buffers, count, this.queue.metrics(), this.queue.share(),
+                    this.queue.limit()
+                )
+            );
         }
     }
 
@@ -61,5 +66,6 @@ final class ReadSubscription implements Subscription {
     public void cancel() {
         this.sub.cancel();
         this.queue.clear();
+        this.queue.wake();
     }
 }
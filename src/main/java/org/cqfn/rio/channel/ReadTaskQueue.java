@@ -7,11 +7,16 @@ package org.cqfn.rio.channel;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
 import java.util.Queue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
-
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.MemoryBudget;
+import org.cqfn.rio.RateLimit;
+import org.cqfn.rio.jfr.DrainEvent;
+import org.cqfn.rio.jfr.Jfr;
 import org.jctools.queues.SpscUnboundedArrayQueue;
 
 /**
@@ -46,29 +51,83 @@ final class ReadTaskQueue implements Runnable {
      */
     private final AtomicBoolean running;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Memory budget share.
+     */
+    private final MemoryBudget.Share share;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * Request which is paused by memory budget or rate limit.
+     */
+    private volatile ReadRequest deferred;
+
     /**
      * New busy loop.
      * @param sub Subscriber
      * @param channel File channel
      * @param exec Executor service to process tasks
+     * @param metrics IO metrics
+     * @param share Memory budget share
+     * @param limit Rate limit
      * @checkstyle MagicNumberCheck (10 lines)
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
     ReadTaskQueue(final ReadSubscriberState<? super ByteBuffer> sub,
-        final ReadableByteChannel channel, final Executor exec) {
+        final ReadableByteChannel channel, final Executor exec, final IoMetrics metrics,
+        final MemoryBudget.Share share, final RateLimit limit) {
         this.queue = new SpscUnboundedArrayQueue<>(128);
         this.sub = sub;
         this.exec = exec;
         this.channel = channel;
         this.running = new AtomicBoolean();
+        this.metrics = metrics;
+        this.share = share;
+        this.limit = limit;
     }
 
     @Override
     public void run() {
+        DrainEvent event = null;
+        if (Jfr.AVAILABLE && DrainEvent.enabled()) {
+            event = new DrainEvent();
+            event.begin();
+        }
+        final long count = this.drain();
+        if (event != null) {
+            event.finish("read", count);
+        }
+    }
+
+    /**
+     * Process queued requests until the queue is empty or subscriber is done.
+     * If request is paused by memory budget or rate limit, the loop stops but still
+     * marked as running, so new requests are queued until it's resumed.
+     * @return Amount of processed requests
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private long drain() {
+        long count = 0;
         while (!this.sub.done()) {
-            ReadRequest next = this.queue.poll();
+            ReadRequest next = this.deferred;
+            if (next == null) {
+                next = this.queue.poll();
+            } else {
+                this.deferred = null;
+            }
             if (next == null) {
                 this.running.set(false);
-                if (!this.queue.isEmpty() && this.running.compareAndSet(false, true)) {
+                if ((!this.queue.isEmpty() || this.sub.done())
+                    && this.running.compareAndSet(false, true)) {
                     if (this.sub.done()) {
                         break;
                     }
@@ -77,10 +136,17 @@ final class ReadTaskQueue implements Runnable {
                         continue;
                     }
                 } else {
-                    return;
+                    return count;
                 }
             }
-            next.process(this.channel);
+            final boolean processed = next.process(this.channel);
+            this.metrics.iteration();
+            ++count;
+            if (!processed) {
+                this.deferred = next;
+                next.resume(this::schedule);
+                return count;
+            }
         }
         if (this.channel.isOpen()) {
             try {
@@ -90,6 +156,10 @@ final class ReadTaskQueue implements Runnable {
                     .warning(String.format("Failed to close channel: %s", err));
             }
         }
+        if (this.channel instanceof SelectableChannel) {
+            Selectors.SHARED.cancel((SelectableChannel) this.channel);
+        }
+        return count;
     }
 
     /**
@@ -101,13 +171,45 @@ final class ReadTaskQueue implements Runnable {
             return;
         }
         this.queue.add(request);
+        if (this.metrics.enabled()) {
+            this.metrics.queued(this.queue.size());
+        }
         if (this.running.compareAndSet(false, true)) {
-            this.exec.execute(
-                new ErrorOnException(
-                    new CloseChanOnError(this, this.channel),
-                    this.sub
-                )
-            );
+            this.schedule();
+        }
+    }
+
+    /**
+     * IO metrics of this queue.
+     * @return Metrics
+     */
+    IoMetrics metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Memory budget share of this queue.
+     * @return Share
+     */
+    MemoryBudget.Share share() {
+        return this.share;
+    }
+
+    /**
+     * Rate limit of this queue.
+     * @return Rate limit
+     */
+    RateLimit limit() {
+        return this.limit;
+    }
+
+    /**
+     * Run the loop if it's idle or paused, so it closes the channel
+     * when subscriber is done, e.g. cancelled while waiting for selector.
+     */
+    void wake() {
+        if (this.running.compareAndSet(false, true) || this.deferred != null) {
+            this.schedule();
         }
     }
 
@@ -117,4 +219,17 @@ final class ReadTaskQueue implements Runnable {
     public void clear() {
         this.queue.clear();
     }
+
+    /**
+     * Schedule this loop on executor.
+     */
+    private void schedule() {
+        this.metrics.hop();
+        this.exec.execute(
+            new ErrorOnException(
+                new CloseChanOnError(this, this.channel),
+                this.sub
+            )
+        );
+    }
 }
@@ -10,6 +10,8 @@ import java.nio.channels.ReadableByteChannel;
 import java.util.concurrent.ExecutorService;
 import org.cqfn.rio.Buffers;
 import org.cqfn.rio.IoExecutor;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
 import org.reactivestreams.Publisher;
 
 /**
@@ -28,6 +30,16 @@ public final class ReadableChannel {
      */
     private final ExecutorService exec;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
     /**
      * Extends channel with publisher providers methods.
      * @param chan Source channel
@@ -43,8 +55,34 @@ public final class ReadableChannel {
      */
     public ReadableChannel(final ChannelSource<? extends ReadableByteChannel> chan,
         final ExecutorService exec) {
+        this(chan, exec, IoMetrics.NOOP);
+    }
+
+    /**
+     * Extends channel with publisher providers methods.
+     * @param chan Source channel
+     * @param exec IO executor service
+     * @param metrics IO metrics
+     */
+    public ReadableChannel(final ChannelSource<? extends ReadableByteChannel> chan,
+        final ExecutorService exec, final IoMetrics metrics) {
+        this(chan, exec, metrics, RateLimit.UNLIMITED);
+    }
+
+    /**
+     * Extends channel with publisher providers methods.
+     * @param chan Source channel
+     * @param exec IO executor service
+     * @param metrics IO metrics
+     * @param limit Rate limit of reads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public ReadableChannel(final ChannelSource<? extends ReadableByteChannel> chan,
+        final ExecutorService exec, final IoMetrics metrics, final RateLimit limit) {
         this.chan = chan;
         this.exec = exec;
+        this.metrics = metrics;
+        this.limit = limit;
     }
 
     /**
@@ -53,7 +91,9 @@ public final class ReadableChannel {
      * @return Publisher of byte buffers
      */
     public Publisher<ByteBuffer> read(final Buffers buf) {
-        return new ReadableChannelPublisher(this.chan, buf, this.exec);
+        return new ReadableChannelPublisher(
+            this.chan, buf, this.exec, this.metrics, this.limit
+        );
     }
 }
 
@@ -10,6 +10,9 @@ import java.nio.channels.ReadableByteChannel;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import org.cqfn.rio.Buffers;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.MemoryBudget;
+import org.cqfn.rio.RateLimit;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
@@ -51,6 +54,21 @@ final class ReadableChannelPublisher implements Publisher<ByteBuffer> {
      */
     private final ExecutorService exec;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * Memory budget.
+     */
+    private final MemoryBudget budget;
+
     /**
      * Ctor.
      * @param src Channel
@@ -70,9 +88,56 @@ final class ReadableChannelPublisher implements Publisher<ByteBuffer> {
      */
     ReadableChannelPublisher(final ChannelSource<? extends ReadableByteChannel> src,
         final Buffers buffers, final ExecutorService exec) {
+        this(src, buffers, exec, IoMetrics.NOOP);
+    }
+
+    /**
+     * Ctor.
+     * @param src Source of channel
+     * @param buffers Buffers allocation strategy
+     * @param exec Executor service for IO operations
+     * @param metrics IO metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ReadableChannelPublisher(final ChannelSource<? extends ReadableByteChannel> src,
+        final Buffers buffers, final ExecutorService exec, final IoMetrics metrics) {
+        this(src, buffers, exec, metrics, RateLimit.UNLIMITED);
+    }
+
+    /**
+     * Ctor.
+     * @param src Source of channel
+     * @param buffers Buffers allocation strategy
+     * @param exec Executor service for IO operations
+     * @param metrics IO metrics
+     * @param limit Rate limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ReadableChannelPublisher(final ChannelSource<? extends ReadableByteChannel> src,
+        final Buffers buffers, final ExecutorService exec, final IoMetrics metrics,
+        final RateLimit limit) {
+        this(src, buffers, exec, metrics, limit, MemoryBudget.GLOBAL);
+    }
+
+    /**
+     * Ctor.
+     * @param src Source of channel
+     * @param buffers Buffers allocation strategy
+     * @param exec Executor service for IO operations
+     * @param metrics IO metrics
+     * @param limit Rate limit
+     * @param budget Memory budget of read buffers
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ReadableChannelPublisher(final ChannelSource<? extends ReadableByteChannel> src,
+        final Buffers buffers, final ExecutorService exec, final IoMetrics metrics,
+        final RateLimit limit, final MemoryBudget budget) {
         this.src = src;
         this.buffers = buffers;
         this.exec = exec;
+        this.metrics = metrics;
+        this.limit = limit;
+        this.budget = budget;
     }
 
     @Override
@@ -90,7 +155,9 @@ final class ReadableChannelPublisher implements Publisher<ByteBuffer> {
         wrap.onSubscribe(
             new ReadSubscription(
                 wrap, this.buffers,
-                new ReadTaskQueue(wrap, chan, this.exec)
+                new ReadTaskQueue(
+                    wrap, chan, this.exec, this.metrics, this.budget.share(), this.limit
+                )
             )
         );
     }
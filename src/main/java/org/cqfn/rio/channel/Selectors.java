@@ -0,0 +1,300 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.channel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Selector engine for non-blocking channels.
+ * <p>
+ * Read and write requests of non-blocking {@link SelectableChannel} pause
+ * when channel is not ready, and ask this engine to resume them when channel
+ * becomes readable or writable: engine registers the interest in selector
+ * only while stream is waiting, and clears it when channel is ready.
+ * It has one selector thread per processor, each channel is always served by
+ * the same selector. Selector threads only run resume actions, which are expected
+ * to submit IO work to executor.
+ * </p>
+ * @since 1.0
+ */
+final class Selectors {
+
+    /**
+     * Shared engine.
+     */
+    static final Selectors SHARED = new Selectors(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Selector loops.
+     */
+    private final Loop[] loops;
+
+    /**
+     * New engine.
+     * @param size Amount of selector threads
+     */
+    Selectors(final int size) {
+        this.loops = new Loop[size];
+        for (int pos = 0; pos < size; ++pos) {
+            this.loops[pos] = new Loop(String.format("rio-selector-%d", pos));
+        }
+    }
+
+    /**
+     * Run the action once when channel is ready for operation.
+     * @param chan Channel
+     * @param op Operation, {@link SelectionKey#OP_READ} or {@link SelectionKey#OP_WRITE}
+     * @param action Action to run
+     */
+    void await(final SelectableChannel chan, final int op, final Runnable action) {
+        this.loops[Math.floorMod(System.identityHashCode(chan), this.loops.length)]
+            .submit(chan, op, action);
+    }
+
+    /**
+     * Cancel the key of channel and drop its waiting actions, e.g. when the stream
+     * of channel is cancelled. Selector deregisters cancelled key and releases
+     * the channel on next select, so the loop is woken up for it.
+     * @param chan Channel
+     */
+    void cancel(final SelectableChannel chan) {
+        this.loops[Math.floorMod(System.identityHashCode(chan), this.loops.length)]
+            .cancel(chan);
+    }
+
+    /**
+     * Check if channel is non-blocking selectable channel.
+     * @param chan Channel
+     * @return True if non-blocking
+     */
+    static boolean nonBlocking(final Channel chan) {
+        return chan instanceof SelectableChannel && !((SelectableChannel) chan).isBlocking();
+    }
+
+    /**
+     * Selector loop.
+     * @since 1.0
+     */
+    private static final class Loop implements Runnable {
+
+        /**
+         * Thread name.
+         */
+        private final String name;
+
+        /**
+         * Registration tasks.
+         */
+        private final Queue<Runnable> tasks;
+
+        /**
+         * Selector, it's opened on first usage.
+         */
+        private Selector selector;
+
+        /**
+         * New loop.
+         * @param name Thread name
+         */
+        Loop(final String name) {
+            this.name = name;
+            this.tasks = new ConcurrentLinkedQueue<>();
+        }
+
+        @Override
+        public void run() {
+            final Selector sel = this.selector;
+            while (sel.isOpen()) {
+                Runnable task = this.tasks.poll();
+                while (task != null) {
+                    Loop.safe(task);
+                    task = this.tasks.poll();
+                }
+                try {
+                    sel.select();
+                } catch (final IOException err) {
+                    Logger.getLogger(this.getClass().getSimpleName())
+                        .log(Level.SEVERE, "Selector failed", err);
+                    break;
+                }
+                final Iterator<SelectionKey> keys = sel.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    final Interest interest = (Interest) key.attachment();
+                    final int ready = Loop.ready(key);
+                    Loop.safe(() -> interest.fire(ready));
+                }
+            }
+        }
+
+        /**
+         * Ready operations of the key, interest in them is cleared.
+         * @param key Selection key
+         * @return Ready operations, all operations if key was cancelled
+         *  to resume waiting streams and fail them on closed channel
+         */
+        private static int ready(final SelectionKey key) {
+            int res;
+            try {
+                res = key.readyOps();
+                key.interestOps(key.interestOps() & ~res);
+            } catch (final CancelledKeyException ignored) {
+                res = SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+            }
+            return res;
+        }
+
+        /**
+         * Run the task, log its errors to keep selector thread running.
+         * @param task Task
+         */
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        private static void safe(final Runnable task) {
+            try {
+                task.run();
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final RuntimeException err) {
+                Logger.getLogger(Selectors.class.getSimpleName())
+                    .log(Level.WARNING, "Selector action failed", err);
+            }
+        }
+
+        /**
+         * Submit interest registration.
+         * @param chan Channel
+         * @param op Operation
+         * @param action Action to run when ready
+         */
+        void submit(final SelectableChannel chan, final int op, final Runnable action) {
+            final Selector sel = this.open();
+            this.tasks.add(() -> Loop.register(sel, chan, op, action));
+            sel.wakeup();
+        }
+
+        /**
+         * Submit key cancellation, it does nothing if selector was never opened.
+         * @param chan Channel
+         */
+        void cancel(final SelectableChannel chan) {
+            final Selector sel;
+            synchronized (this) {
+                sel = this.selector;
+            }
+            if (sel != null) {
+                this.tasks.add(
+                    () -> {
+                        final SelectionKey key = chan.keyFor(sel);
+                        if (key != null) {
+                            key.cancel();
+                        }
+                    }
+                );
+                sel.wakeup();
+            }
+        }
+
+        /**
+         * Open selector and start the thread on first usage.
+         * @return Selector
+         */
+        private synchronized Selector open() {
+            if (this.selector == null) {
+                try {
+                    this.selector = Selector.open();
+                } catch (final IOException err) {
+                    throw new UncheckedIOException("Failed to open selector", err);
+                }
+                final Thread thread = new Thread(this, this.name);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            return this.selector;
+        }
+
+        /**
+         * Register interest, it's called from selector thread.
+         * @param sel Selector
+         * @param chan Channel
+         * @param op Operation
+         * @param action Action to run when ready
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        private static void register(final Selector sel, final SelectableChannel chan,
+            final int op, final Runnable action) {
+            try {
+                final SelectionKey key = chan.keyFor(sel);
+                if (key == null) {
+                    final Interest interest = new Interest();
+                    interest.add(op, action);
+                    chan.register(sel, op, interest);
+                } else {
+                    ((Interest) key.attachment()).add(op, action);
+                    key.interestOps(key.interestOps() | op);
+                }
+            } catch (final IOException | CancelledKeyException err) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * Actions waiting for channel operations.
+     * @since 1.0
+     */
+    private static final class Interest {
+
+        /**
+         * Read action.
+         */
+        private Runnable read;
+
+        /**
+         * Write action.
+         */
+        private Runnable write;
+
+        /**
+         * Add action for operation.
+         * @param op Operation
+         * @param action Action
+         */
+        void add(final int op, final Runnable action) {
+            if (op == SelectionKey.OP_READ) {
+                this.read = action;
+            } else {
+                this.write = action;
+            }
+        }
+
+        /**
+         * Run actions of ready operations.
+         * @param ready Ready operations
+         */
+        void fire(final int ready) {
+            if ((ready & SelectionKey.OP_READ) != 0 && this.read != null) {
+                final Runnable action = this.read;
+                this.read = null;
+                action.run();
+            }
+            if ((ready & SelectionKey.OP_WRITE) != 0 && this.write != null) {
+                final Runnable action = this.write;
+                this.write = null;
+                action.run();
+            }
+        }
+    }
+}
@@ -10,6 +10,8 @@ import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import org.cqfn.rio.IoExecutor;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
 import org.cqfn.rio.WriteGreed;
 import org.reactivestreams.Publisher;
 
@@ -29,6 +31,16 @@ public final class WritableChannel {
      */
     private final ExecutorService exec;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
     /**
      * Extend writable channel with methods to accept reactive publishers.
      * @param src Writable channel source
@@ -44,8 +56,34 @@ public final class WritableChannel {
      */
     public WritableChannel(final ChannelSource<? extends WritableByteChannel> src,
         final ExecutorService exec) {
+        this(src, exec, IoMetrics.NOOP);
+    }
+
+    /**
+     * Extend writable channel with methods to accept reactive publishers.
+     * @param src Writable channel source
+     * @param exec IO executor service
+     * @param metrics IO metrics
+     */
+    public WritableChannel(final ChannelSource<? extends WritableByteChannel> src,
+        final ExecutorService exec, final IoMetrics metrics) {
+        this(src, exec, metrics, RateLimit.UNLIMITED);
+    }
+
+    /**
+     * Extend writable channel with methods to accept reactive publishers.
+     * @param src Writable channel source
+     * @param exec IO executor service
+     * @param metrics IO metrics
+     * @param limit Rate limit of writes
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public WritableChannel(final ChannelSource<? extends WritableByteChannel> src,
+        final ExecutorService exec, final IoMetrics metrics, final RateLimit limit) {
         this.src = src;
         this.exec = exec;
+        this.metrics = metrics;
+        this.limit = limit;
     }
 
     /**
@@ -65,7 +103,7 @@ public final class WritableChannel {
      */
     public CompletionStage<Void> write(final Publisher<ByteBuffer> data, final WriteGreed greed) {
         final WritableChannelSubscriber sub =
-            new WritableChannelSubscriber(this.src, greed, this.exec);
+            new WritableChannelSubscriber(this.src, greed, this.exec, this.metrics, this.limit);
         sub.acceptAsync(data);
         return sub;
     }
@@ -4,7 +4,11 @@
  */
 package org.cqfn.rio.channel;
 
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
 import org.cqfn.rio.WriteGreed;
+import org.cqfn.rio.jfr.Jfr;
+import org.cqfn.rio.jfr.SubscriptionEvent;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
@@ -45,10 +49,20 @@ final class WritableChannelSubscriber extends CompletableFuture<Void>
      */
     private final WriteGreed greed;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
     /**
      * Tasks queue for write requests.
      */
-    private WriteTaskQueue queue;
+    private volatile WriteTaskQueue queue;
 
     /**
      * New write subscriber.
@@ -59,10 +73,43 @@ final class WritableChannelSubscriber extends CompletableFuture<Void>
      */
     WritableChannelSubscriber(final ChannelSource<? extends WritableByteChannel> src,
                               final WriteGreed greed, final ExecutorService exec) {
+        this(src, greed, exec, IoMetrics.NOOP);
+    }
+
+    /**
+     * New write subscriber.
+     *
+     * @param src     Source of channel
+     * @param greed   Consumer greed level
+     * @param exec    Executor service to process requests
+     * @param metrics IO metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WritableChannelSubscriber(final ChannelSource<? extends WritableByteChannel> src,
+                              final WriteGreed greed, final ExecutorService exec,
+                              final IoMetrics metrics) {
+        this(src, greed, exec, metrics, RateLimit.UNLIMITED);
+    }
+
+    /**
+     * New write subscriber.
+     *
+     * @param src     Source of channel
+     * @param greed   Consumer greed level
+     * @param exec    Executor service to process requests
+     * @param metrics IO metrics
+     * @param limit   Rate limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WritableChannelSubscriber(final ChannelSource<? extends WritableByteChannel> src,
+                              final WriteGreed greed, final ExecutorService exec,
+                              final IoMetrics metrics, final RateLimit limit) {
         this.src = src;
         this.sub = new AtomicReference<>();
         this.exec = exec;
         this.greed = greed;
+        this.metrics = metrics;
+        this.limit = limit;
     }
 
     /**
@@ -86,6 +133,7 @@ final class WritableChannelSubscriber extends CompletableFuture<Void>
             subscription.cancel();
             return;
         }
+        WritableChannelSubscriber.signal("subscribe");
         final WritableByteChannel chan;
         try {
             chan = this.src.channel();
@@ -94,22 +142,52 @@ final class WritableChannelSubscriber extends CompletableFuture<Void>
             this.completeExceptionally(iex);
             return;
         }
-        this.queue = new WriteTaskQueue(this, chan, this.sub, this.greed, this.exec);
+        this.queue = new WriteTaskQueue(
+            this, chan, this.sub, this.greed, this.exec, this.metrics, this.limit
+        );
         this.greed.init(subscription);
+        if (this.isCancelled()) {
+            this.queue.wake();
+        }
     }
 
     @Override
     public void onNext(final ByteBuffer buf) {
-        this.queue.accept(new WriteRequest.Next(this, Objects.requireNonNull(buf)));
+        this.queue.accept(new WriteRequest.Next(this, Objects.requireNonNull(buf), this.metrics));
     }
 
     @Override
     public void onError(final Throwable err) {
+        WritableChannelSubscriber.signal("error");
         this.queue.accept(new WriteRequest.Error(this, Objects.requireNonNull(err)));
     }
 
     @Override
     public void onComplete() {
+        WritableChannelSubscriber.signal("complete");
         this.queue.accept(new WriteRequest.Complete(this));
     }
+
+    @Override
+    public boolean cancel(final boolean interrupt) {
+        final boolean res = super.cancel(interrupt);
+        if (res) {
+            WritableChannelSubscriber.signal("cancel");
+            final WriteTaskQueue tasks = this.queue;
+            if (tasks != null) {
+                tasks.wake();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Emit subscription lifecycle event.
+     * @param name Signal name
+     */
+    private static void signal(final String name) {
+        if (Jfr.AVAILABLE) {
+            new SubscriptionEvent().emit("write", name);
+        }
+    }
 }
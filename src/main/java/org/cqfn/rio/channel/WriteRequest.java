@@ -6,9 +6,14 @@ package org.cqfn.rio.channel;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.jfr.ChannelWriteEvent;
+import org.cqfn.rio.jfr.Jfr;
 
 /**
  * Request to write.
@@ -40,11 +45,32 @@ abstract class WriteRequest {
     /**
      * Process write request.
      * @param chan Output channel
+     * @return False if request was paused and should be resumed later
      */
-    abstract void process(WritableByteChannel chan);
+    abstract boolean process(WritableByteChannel chan);
+
+    /**
+     * Resume paused request.
+     * @param action Action to run when request can be processed again
+     */
+    void resume(final Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Size of request data.
+     * @return Amount of bytes
+     */
+    long size() {
+        return 0L;
+    }
 
     /**
      * Next write request with data.
+     * <p>
+     * It pauses when non-blocking channel is not writable, and resumes
+     * writing of remaining data when selector reports it's ready.
+     * </p>
      * @since 0.1
      */
     static final class Next extends WriteRequest {
@@ -54,21 +80,66 @@ abstract class WriteRequest {
          */
         private final ByteBuffer target;
 
+        /**
+         * IO metrics.
+         */
+        private final IoMetrics metrics;
+
+        /**
+         * Data size.
+         */
+        private final long bytes;
+
+        /**
+         * Non-blocking channel which is not ready for write.
+         */
+        private SelectableChannel pending;
+
         /**
          * New next write request.
          * @param future Future
          * @param target Buffer
+         * @param metrics IO metrics
          */
-        Next(final CompletableFuture<Void> future, final ByteBuffer target) {
+        Next(final CompletableFuture<Void> future, final ByteBuffer target,
+            final IoMetrics metrics) {
             super(future);
             this.target = target;
+            this.metrics = metrics;
+            this.bytes = target.remaining();
         }
 
         @Override
-        public void process(final WritableByteChannel chan) {
+        long size() {
+            return this.bytes;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.OnlyOneReturn")
+        public boolean process(final WritableByteChannel chan) {
             while (this.target.hasRemaining()) {
                 try {
-                    chan.write(this.target);
+                    ChannelWriteEvent event = null;
+                    if (Jfr.AVAILABLE && ChannelWriteEvent.enabled()) {
+                        event = new ChannelWriteEvent();
+                        event.begin();
+                    }
+                    final boolean timed = this.metrics.enabled();
+                    long start = 0L;
+                    if (timed) {
+                        start = System.nanoTime();
+                    }
+                    final int written = chan.write(this.target);
+                    if (timed) {
+                        this.metrics.written(written, System.nanoTime() - start);
+                    }
+                    if (event != null) {
+                        event.finish(written);
+                    }
+                    if (written == 0 && Selectors.nonBlocking(chan)) {
+                        this.pending = (SelectableChannel) chan;
+                        return false;
+                    }
                 } catch (final IOException iex) {
                     try {
                         chan.close();
@@ -80,9 +151,17 @@ abstract class WriteRequest {
                         );
                     }
                     this.future.completeExceptionally(iex);
-                    return;
+                    return true;
                 }
             }
+            return true;
+        }
+
+        @Override
+        void resume(final Runnable action) {
+            final SelectableChannel chan = this.pending;
+            this.pending = null;
+            Selectors.SHARED.await(chan, SelectionKey.OP_WRITE, action);
         }
 
         @Override
@@ -106,14 +185,14 @@ abstract class WriteRequest {
         }
 
         @Override
-        public void process(final WritableByteChannel chan) {
+        public boolean process(final WritableByteChannel chan) {
             try {
                 chan.close();
+                this.future.complete(null);
             } catch (final IOException iex) {
                 this.future.completeExceptionally(iex);
-                return;
             }
-            this.future.complete(null);
+            return true;
         }
 
         @Override
@@ -149,7 +228,7 @@ abstract class WriteRequest {
         }
 
         @Override
-        void process(final WritableByteChannel chan) {
+        boolean process(final WritableByteChannel chan) {
             try {
                 chan.close();
             } catch (final IOException cex) {
@@ -158,6 +237,7 @@ abstract class WriteRequest {
                 );
             }
             this.future.completeExceptionally(this.err);
+            return true;
         }
     }
 }
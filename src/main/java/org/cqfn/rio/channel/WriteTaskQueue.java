@@ -4,10 +4,15 @@
  */
 package org.cqfn.rio.channel;
 
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
 import org.cqfn.rio.WriteGreed;
+import org.cqfn.rio.jfr.DrainEvent;
+import org.cqfn.rio.jfr.Jfr;
 import org.jctools.queues.SpscUnboundedArrayQueue;
 import org.reactivestreams.Subscription;
 import java.io.IOException;
+import java.nio.channels.SelectableChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.Optional;
 import java.util.Queue;
@@ -68,6 +73,21 @@ final class WriteTaskQueue implements Runnable {
      */
     private final AtomicBoolean running;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * Request which is paused by rate limit.
+     */
+    private volatile WriteRequest deferred;
+
     /**
      * Ctor.
      * @param future Target future
@@ -75,12 +95,15 @@ final class WriteTaskQueue implements Runnable {
      * @param sub Subscription reference
      * @param greed Greed level
      * @param exec Executor service
+     * @param metrics IO metrics
+     * @param limit Rate limit
      * @checkstyle ParameterNumberCheck (5 lines)
      * @checkstyle MagicNumberCheck (10 lines)
      */
     WriteTaskQueue(final CompletableFuture<Void> future,
         final WritableByteChannel channel, final AtomicReference<Subscription> sub,
-        final WriteGreed greed, final Executor exec) {
+        final WriteGreed greed, final Executor exec, final IoMetrics metrics,
+        final RateLimit limit) {
         this.future = future;
         this.channel = channel;
         this.sub = sub;
@@ -88,20 +111,48 @@ final class WriteTaskQueue implements Runnable {
         this.greed = greed;
         this.exec = exec;
         this.running = new AtomicBoolean();
+        this.metrics = metrics;
+        this.limit = limit;
     }
 
     @Override
-    @SuppressWarnings("PMD.CyclomaticComplexity")
     public void run() {
+        DrainEvent event = null;
+        if (Jfr.AVAILABLE && DrainEvent.enabled()) {
+            event = new DrainEvent();
+            event.begin();
+        }
+        final long count = this.drain();
+        if (event != null) {
+            event.finish("write", count);
+        }
+    }
+
+    /**
+     * Process queued requests until the queue is empty or future is done.
+     * If rate limit asks for a delay, or non-blocking channel is not writable,
+     * the loop stops but still marked as running, so new requests are queued
+     * until it's resumed by the timer or selector.
+     * @return Amount of processed requests
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private long drain() {
+        long count = 0;
         int attempts = WriteTaskQueue.LOOP_ATTEMPTS;
         while (!this.future.isDone()) {
             // requesting next chunk of byte buffers according to greed strategy
-            WriteRequest next = this.queue.poll();
+            WriteRequest next = this.deferred;
+            if (next == null) {
+                next = this.queue.poll();
+            } else {
+                this.deferred = null;
+            }
             // if no next item, try to exit the loop
             boolean empty = next == null;
 
             if (empty) {
                 if (--attempts > 0) {
+                    this.metrics.spin();
                     Thread.yield();
                     continue;
                 }
@@ -120,13 +171,26 @@ final class WriteTaskQueue implements Runnable {
                     }
                 } else {
                     // if empty or acquired by next loop - exit
-                    return;
+                    return count;
                 }
             }
             assert !empty && next != null : "can't process empty or null element";
-            next.process(this.channel);
-            this.greed.processed(this.sub.get());
+            final long delay = this.limit.delay();
+            if (delay > 0) {
+                this.deferred = next;
+                this.limit.schedule(delay, this::schedule);
+                return count;
+            }
+            if (!next.process(this.channel)) {
+                this.deferred = next;
+                next.resume(this::schedule);
+                return count;
+            }
+            this.limit.consume(next.size());
+            this.metrics.iteration();
+            this.greed.processed(this.sub.get(), next.size());
             attempts = WriteTaskQueue.LOOP_ATTEMPTS;
+            ++count;
         }
 
         // future completed
@@ -138,8 +202,18 @@ final class WriteTaskQueue implements Runnable {
                     .warning(String.format("Failed to close channel: %s", err));
             }
         }
+        if (this.channel instanceof SelectableChannel) {
+            Selectors.SHARED.cancel((SelectableChannel) this.channel);
+        }
         Optional.ofNullable(this.sub.getAndSet(null)).ifPresent(Subscription::cancel);
+        final WriteRequest paused = this.deferred;
+        if (paused != null) {
+            this.deferred = null;
+            this.greed.processed(null, paused.size());
+        }
+        this.discard();
         this.running.set(false);
+        return count;
     }
 
     /**
@@ -151,16 +225,49 @@ final class WriteTaskQueue implements Runnable {
             return;
         }
         if (req instanceof WriteRequest.Error) {
-            this.queue.clear();
+            this.discard();
         }
-        this.greed.received(this.sub.get());
+        this.greed.received(this.sub.get(), req.size());
         this.queue.add(req);
+        if (this.metrics.enabled()) {
+            this.metrics.queued(this.queue.size());
+        }
+        if (this.running.compareAndSet(false, true)) {
+            this.schedule();
+        }
+    }
+
+    /**
+     * Run the loop if it's not running, so it closes the channel
+     * and cancels the subscription when the future is done.
+     */
+    void wake() {
         if (this.running.compareAndSet(false, true)) {
-            this.exec.execute(this);
+            this.schedule();
         }
     }
 
     public int size() {
         return this.queue.size();
     }
+
+    /**
+     * Schedule this loop on executor.
+     */
+    private void schedule() {
+        this.metrics.hop();
+        this.exec.execute(this);
+    }
+
+    /**
+     * Drop queued requests, they are reported as processed to release
+     * greed resources, e.g. memory budget.
+     */
+    private void discard() {
+        WriteRequest req = this.queue.poll();
+        while (req != null) {
+            this.greed.processed(this.sub.get(), req.size());
+            req = this.queue.poll();
+        }
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
+import org.cqfn.rio.WriteGreed;
+import org.cqfn.rio.channel.WritableChannel;
+import org.reactivestreams.Publisher;
+
+/**
+ * Atomic file write: data is written into sibling temporary file, which is
+ * moved to target path atomically on success, or deleted on failure or cancellation
+ * once its channel is closed.
+ * @since 1.0
+ */
+final class AtomicWrite {
+
+    /**
+     * Target path.
+     */
+    private final Path path;
+
+    /**
+     * IO executor.
+     */
+    private final ExecutorService exec;
+
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * New atomic write.
+     * @param path Target path
+     * @param exec IO executor
+     * @param metrics IO metrics
+     * @param limit Rate limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    AtomicWrite(final Path path, final ExecutorService exec, final IoMetrics metrics,
+        final RateLimit limit) {
+        this.path = path;
+        this.exec = exec;
+        this.metrics = metrics;
+        this.limit = limit;
+    }
+
+    /**
+     * Write data atomically.
+     * @param data Data publisher
+     * @param greed Greed level of consumer
+     * @param opts Options
+     * @return Future, cancelling it cancels the write
+     */
+    CompletableFuture<Void> write(final Publisher<ByteBuffer> data, final WriteGreed greed,
+        final Options opts) {
+        final TempFile tmp = new TempFile(
+            this.path.resolveSibling(
+                String.format(".%s.%s.tmp", this.path.getFileName(), UUID.randomUUID())
+            )
+        );
+        final WriteSource src = new WriteSource(
+            tmp.path,
+            new Options(opts.specific(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)),
+            this.metrics
+        );
+        final CompletableFuture<Void> origin = new WritableChannel(
+            () -> tmp.track(src.channel()), this.exec, this.metrics, this.limit
+        ).write(data, greed).toCompletableFuture();
+        final CompletableFuture<Void> res = new CompletableFuture<>();
+        origin.whenCompleteAsync(
+            (none, err) -> {
+                if (err == null && !res.isDone()) {
+                    try {
+                        Files.move(tmp.path, this.path, StandardCopyOption.ATOMIC_MOVE);
+                        res.complete(null);
+                    } catch (final IOException iex) {
+                        tmp.discard();
+                        res.completeExceptionally(iex);
+                    }
+                } else {
+                    tmp.discard();
+                    if (err != null) {
+                        res.completeExceptionally(err);
+                    }
+                }
+            },
+            this.exec
+        );
+        res.whenComplete(
+            (none, err) -> {
+                if (err instanceof CancellationException) {
+                    tmp.discard();
+                    origin.cancel(true);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Temporary file of the write. It's deleted when it's discarded and its
+     * channel is closed, or never opened, so cancelled write doesn't leave
+     * the file which was created by the channel after cancellation.
+     * @since 1.0
+     */
+    private static final class TempFile {
+
+        /**
+         * Path of temporary file.
+         */
+        private final Path path;
+
+        /**
+         * Channel of the file is open.
+         */
+        private boolean open;
+
+        /**
+         * File is discarded.
+         */
+        private boolean discarded;
+
+        /**
+         * New temporary file.
+         * @param path Path of temporary file
+         */
+        TempFile(final Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Track opened channel of the file.
+         * @param chan Channel
+         * @return Channel which deletes discarded file on close
+         */
+        WritableByteChannel track(final WritableByteChannel chan) {
+            synchronized (this) {
+                this.open = true;
+            }
+            return new WritableByteChannel() {
+                @Override
+                public int write(final ByteBuffer src) throws IOException {
+                    return chan.write(src);
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return chan.isOpen();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        chan.close();
+                    } finally {
+                        TempFile.this.closed();
+                    }
+                }
+            };
+        }
+
+        /**
+         * Discard the file, it's deleted now if its channel is not open,
+         * or when the channel is closed.
+         */
+        void discard() {
+            final boolean delete;
+            synchronized (this) {
+                this.discarded = true;
+                delete = !this.open;
+            }
+            if (delete) {
+                this.delete();
+            }
+        }
+
+        /**
+         * Channel of the file is closed.
+         */
+        private void closed() {
+            final boolean delete;
+            synchronized (this) {
+                delete = this.open && this.discarded;
+                this.open = false;
+            }
+            if (delete) {
+                this.delete();
+            }
+        }
+
+        /**
+         * Delete temporary file.
+         */
+        private void delete() {
+            try {
+                Files.deleteIfExists(this.path);
+            } catch (final IOException err) {
+                Logger.getLogger(AtomicWrite.class.getSimpleName()).warning(
+                    String.format("Failed to delete temporary file %s: %s", this.path, err)
+                );
+            }
+        }
+    }
+}
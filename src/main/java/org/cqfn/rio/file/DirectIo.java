@@ -0,0 +1,174 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import org.cqfn.rio.IoMetrics;
+
+/**
+ * Direct IO channels factory.
+ * <p>
+ * Direct IO API is not available in JDK 8, so it's accessed via reflection:
+ * {@code ExtendedOpenOption.DIRECT} and {@code FileStore.getBlockSize()}
+ * are available since JDK 10, {@code ByteBuffer.alignedSlice()} since JDK 9.
+ * </p>
+ * @since 1.0
+ */
+final class DirectIo {
+
+    /**
+     * Staging buffer size, it's rounded up to the file store block size.
+     */
+    private static final int CHUNK = 1 << 20;
+
+    /**
+     * File path.
+     */
+    private final Path path;
+
+    /**
+     * New direct IO for file.
+     * @param path File path
+     */
+    DirectIo(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Open channel for direct reading.
+     * @param opts Standard open options
+     * @return Readable channel
+     * @throws IOException On open error
+     */
+    ReadableByteChannel reader(final Set<OpenOption> opts) throws IOException {
+        final FileChannel chan = this.open(opts);
+        final ByteBuffer stage;
+        try {
+            stage = DirectIo.aligned(this.block());
+        } catch (final IOException err) {
+            chan.close();
+            throw err;
+        }
+        return new DirectReadChannel(chan, stage);
+    }
+
+    /**
+     * Open channel for direct writing, it's opened for reading too, to keep existing
+     * file data in the last written block.
+     * @param opts Standard open options
+     * @param durability Durability policy
+     * @param expected Expected size hint
+     * @param metrics IO metrics
+     * @return Writable channel
+     * @throws IOException On open error
+     */
+    WritableByteChannel writer(final Set<OpenOption> opts, final Durability durability,
+        final ExpectedSize expected, final IoMetrics metrics) throws IOException {
+        if (opts.contains(StandardOpenOption.APPEND)) {
+            throw new IOException("APPEND option is not supported in direct IO mode");
+        }
+        final Set<OpenOption> all = new HashSet<>(opts);
+        all.add(StandardOpenOption.READ);
+        final FileChannel chan = this.open(all);
+        final WritableByteChannel res;
+        try {
+            final int block = this.block();
+            final ByteBuffer stage = DirectIo.aligned(block);
+            final long initial = chan.size();
+            final ByteBuffer tail = stage.duplicate();
+            ((Buffer) tail).limit(block);
+            expected.extend(chan, tail);
+            res = new DirectWriteChannel(
+                chan, stage, block, durability.sync(chan, metrics), initial
+            );
+        } catch (final IOException err) {
+            chan.close();
+            throw err;
+        }
+        return res;
+    }
+
+    /**
+     * Open file channel with direct option.
+     * @param opts Standard options
+     * @return File channel
+     * @throws IOException On error
+     */
+    private FileChannel open(final Set<OpenOption> opts) throws IOException {
+        final Set<OpenOption> all = new HashSet<>(opts);
+        all.add(DirectIo.option());
+        return FileChannel.open(this.path, all);
+    }
+
+    /**
+     * File store block size.
+     * @return Block size in bytes
+     * @throws IOException If not supported
+     */
+    private int block() throws IOException {
+        final FileStore store = Files.getFileStore(this.path);
+        final long size;
+        try {
+            size = (long) FileStore.class.getMethod("getBlockSize").invoke(store);
+        } catch (final NoSuchMethodException | IllegalAccessException err) {
+            throw new IOException("Direct IO requires JDK 10+", err);
+        } catch (final InvocationTargetException err) {
+            throw new IOException("Failed to get file store block size", err.getCause());
+        }
+        if (size <= 0 || size > DirectIo.CHUNK) {
+            throw new IOException(String.format("Unsupported block size: %d", size));
+        }
+        return (int) size;
+    }
+
+    /**
+     * Direct IO open option.
+     * @return Open option
+     * @throws IOException If not supported
+     */
+    private static OpenOption option() throws IOException {
+        try {
+            return (OpenOption) Class.forName("com.sun.nio.file.ExtendedOpenOption")
+                .getField("DIRECT").get(null);
+        } catch (final ClassNotFoundException | NoSuchFieldException
+            | IllegalAccessException err) {
+            throw new IOException("Direct IO requires JDK 10+", err);
+        }
+    }
+
+    /**
+     * Allocate staging buffer aligned to block size.
+     * @param block Block size
+     * @return Aligned buffer with capacity multiple of block size
+     * @throws IOException If not supported
+     */
+    private static ByteBuffer aligned(final int block) throws IOException {
+        final int size = (DirectIo.CHUNK + block - 1) / block * block;
+        final ByteBuffer raw = ByteBuffer.allocateDirect(size + block);
+        final ByteBuffer res;
+        try {
+            res = (ByteBuffer) ByteBuffer.class.getMethod("alignedSlice", int.class)
+                .invoke(raw, block);
+        } catch (final NoSuchMethodException | IllegalAccessException
+            | InvocationTargetException err) {
+            throw new IOException("Direct IO requires JDK 10+", err);
+        }
+        ((Buffer) res).limit(size);
+        return res;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Readable channel for file opened in direct IO mode.
+ * <p>
+ * It reads the file into block-aligned staging buffer by block-sized
+ * chunks and copies the data into destination buffers, so any destination
+ * buffer can be used. Short reads continue filling the chunk, the stream ends
+ * only when the file channel reports end of stream or the position reaches
+ * the file size. The last chunk of the file may be not aligned, the channel
+ * reports end of stream after it without accessing the file on unaligned position.
+ * </p>
+ * @since 1.0
+ */
+final class DirectReadChannel implements ReadableByteChannel {
+
+    /**
+     * File channel opened with direct option.
+     */
+    private final FileChannel chan;
+
+    /**
+     * Aligned staging buffer.
+     */
+    private final ByteBuffer stage;
+
+    /**
+     * End of file flag.
+     */
+    private boolean eof;
+
+    /**
+     * New direct read channel.
+     * @param chan File channel
+     * @param stage Aligned staging buffer
+     */
+    DirectReadChannel(final FileChannel chan, final ByteBuffer stage) {
+        this.chan = chan;
+        this.stage = stage;
+        ((Buffer) this.stage).limit(0);
+    }
+
+    @Override
+    @SuppressWarnings("PMD.OnlyOneReturn")
+    public int read(final ByteBuffer dst) throws IOException {
+        if (!this.stage.hasRemaining()) {
+            if (this.eof) {
+                return -1;
+            }
+            ((Buffer) this.stage).clear();
+            while (!this.eof && this.stage.hasRemaining()) {
+                final int read = this.chan.read(this.stage);
+                this.eof = read < 0
+                    || this.stage.hasRemaining() && this.chan.position() >= this.chan.size();
+            }
+            ((Buffer) this.stage).flip();
+            if (!this.stage.hasRemaining()) {
+                return -1;
+            }
+        }
+        final int len = Math.min(dst.remaining(), this.stage.remaining());
+        final ByteBuffer src = this.stage.duplicate();
+        ((Buffer) src).limit(src.position() + len);
+        dst.put(src);
+        ((Buffer) this.stage).position(this.stage.position() + len);
+        return len;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.chan.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.chan.close();
+    }
+}
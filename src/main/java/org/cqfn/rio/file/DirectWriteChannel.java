@@ -0,0 +1,163 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writable channel for file opened in direct IO mode.
+ * <p>
+ * It accumulates source data in block-aligned staging buffer and writes it
+ * by full chunks. On close, the not aligned tail is padded up to the block
+ * size and written, then the file is truncated to the actual size and forced
+ * according to durability policy. The tail is padded with existing file data
+ * if the file is overwritten, or with zeros otherwise.
+ * </p>
+ * @since 1.0
+ */
+final class DirectWriteChannel implements WritableByteChannel {
+
+    /**
+     * File channel opened with direct option.
+     */
+    private final FileChannel chan;
+
+    /**
+     * Aligned staging buffer.
+     */
+    private final ByteBuffer stage;
+
+    /**
+     * Block size.
+     */
+    private final int block;
+
+    /**
+     * Initial file size before extension to expected size.
+     */
+    private final long initial;
+
+    /**
+     * File sync.
+     */
+    private final FileSync sync;
+
+    /**
+     * New direct write channel.
+     * @param chan File channel
+     * @param stage Aligned staging buffer
+     * @param block Block size
+     * @param sync File sync
+     * @param initial Initial file size before extension to expected size
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    DirectWriteChannel(final FileChannel chan, final ByteBuffer stage, final int block,
+        final FileSync sync, final long initial) {
+        this.chan = chan;
+        this.stage = stage;
+        this.block = block;
+        this.sync = sync;
+        this.initial = initial;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        final int total = src.remaining();
+        while (src.hasRemaining()) {
+            final int len = Math.min(src.remaining(), this.stage.remaining());
+            final ByteBuffer part = src.duplicate();
+            ((Buffer) part).limit(part.position() + len);
+            this.stage.put(part);
+            ((Buffer) src).position(src.position() + len);
+            if (!this.stage.hasRemaining()) {
+                this.flush();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.chan.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.chan.isOpen()) {
+            try {
+                this.tail();
+                this.sync.complete();
+            } finally {
+                this.chan.close();
+            }
+        }
+    }
+
+    /**
+     * Write not aligned tail padded to the block size and truncate the file to actual size,
+     * including space of expected size. If the file had data after the tail, the last block
+     * is padded with that data instead of zeros, so it's not overwritten.
+     * @throws IOException On write error
+     */
+    private void tail() throws IOException {
+        final int tail = this.stage.position();
+        final long size = Math.max(this.chan.position() + tail, this.initial);
+        if (tail > 0) {
+            final int padded = (tail + this.block - 1) / this.block * this.block;
+            ((Buffer) this.stage).limit(padded);
+            if (this.initial > this.chan.position() + tail) {
+                this.merge(padded - this.block);
+            }
+            while (this.stage.hasRemaining()) {
+                this.stage.put((byte) 0);
+            }
+            this.flush();
+        }
+        if (this.chan.size() > size) {
+            this.chan.truncate(size);
+        }
+    }
+
+    /**
+     * Read existing file data of the last block into staging buffer
+     * and put the tail over it.
+     * @param last Offset of the last block in staging buffer
+     * @throws IOException On read error
+     */
+    private void merge(final int last) throws IOException {
+        final int tail = this.stage.position();
+        final ByteBuffer keep = ByteBuffer.allocate(tail - last);
+        final ByteBuffer src = this.stage.duplicate();
+        ((Buffer) src).limit(tail);
+        ((Buffer) src).position(last);
+        keep.put(src);
+        ((Buffer) keep).flip();
+        final ByteBuffer dst = this.stage.duplicate();
+        ((Buffer) dst).limit(last + this.block);
+        ((Buffer) dst).position(last);
+        final int read = Math.max(0, this.chan.read(dst, this.chan.position() + last));
+        ((Buffer) this.stage).position(last);
+        this.stage.put(keep);
+        ((Buffer) this.stage).position(Math.max(tail, last + read));
+    }
+
+    /**
+     * Write staging buffer content to the file.
+     * @throws IOException On write error
+     */
+    private void flush() throws IOException {
+        ((Buffer) this.stage).flip();
+        final int size = this.stage.remaining();
+        while (this.stage.hasRemaining()) {
+            this.chan.write(this.stage);
+        }
+        ((Buffer) this.stage).clear();
+        this.sync.written(size);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.IoMetrics;
+
+/**
+ * Durability policy of file write.
+ * <p>
+ * When passed to {@link File} write methods, it forces written data to the
+ * storage device using {@link FileChannel#force(boolean)} before the channel
+ * is closed, so completed write future means that the data is durable.
+ * Periodic policy also forces data after some amount of bytes was written or
+ * some time passed since last force. Forcing is performed on write executor,
+ * its latency is reported to {@link IoMetrics#synced(long)} of the file and to
+ * {@code FileSync} logger with {@code FINE} level.
+ * </p>
+ * @since 1.0
+ */
+public final class Durability implements OpenOption {
+
+    /**
+     * Don't force the data, it's up to operating system when to write it.
+     */
+    public static final Durability NONE = new Durability(false, false, 0L, 0L);
+
+    /**
+     * Force file content on write completion, like {@code fdatasync}.
+     */
+    public static final Durability DATA = new Durability(false);
+
+    /**
+     * Force file content and metadata on write completion, like {@code fsync}.
+     */
+    public static final Durability ALL = new Durability(true);
+
+    /**
+     * Force flag.
+     */
+    private final boolean force;
+
+    /**
+     * Force metadata flag.
+     */
+    private final boolean metadata;
+
+    /**
+     * Force after this amount of bytes written.
+     */
+    private final long bytes;
+
+    /**
+     * Force after this amount of milliseconds passed.
+     */
+    private final long millis;
+
+    /**
+     * Force on write completion.
+     * @param metadata Force file metadata too
+     */
+    public Durability(final boolean metadata) {
+        this(metadata, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Force periodically and on write completion.
+     * @param metadata Force file metadata too
+     * @param bytes Force after this amount of bytes written since last force
+     * @param millis Force after this amount of milliseconds passed since last force
+     */
+    public Durability(final boolean metadata, final long bytes, final long millis) {
+        this(true, metadata, bytes, millis);
+    }
+
+    /**
+     * Primary constructor.
+     * @param force Force flag
+     * @param metadata Force metadata flag
+     * @param bytes Bytes period
+     * @param millis Time period
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Durability(final boolean force, final boolean metadata, final long bytes,
+        final long millis) {
+        if (force && (bytes <= 0 || millis <= 0)) {
+            throw new IllegalArgumentException("Force period should be positive");
+        }
+        this.force = force;
+        this.metadata = metadata;
+        this.bytes = bytes;
+        this.millis = millis;
+    }
+
+    @Override
+    public String toString() {
+        final String res;
+        if (this.force) {
+            res = String.format(
+                "Durability(metadata=%b, bytes=%d, millis=%d)",
+                this.metadata, this.bytes, this.millis
+            );
+        } else {
+            res = "Durability(none)";
+        }
+        return res;
+    }
+
+    /**
+     * New sync state for file channel.
+     * @param chan File channel
+     * @param metrics IO metrics
+     * @return File sync
+     */
+    FileSync sync(final FileChannel chan, final IoMetrics metrics) {
+        return new FileSync(
+            chan, this.force, this.metadata, this.bytes,
+            TimeUnit.MILLISECONDS.toNanos(this.millis), metrics
+        );
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+
+/**
+ * Expected size hint of file write.
+ * <p>
+ * When the total size of written data is known, e.g. on copy or upload
+ * with known content length, the file is extended to expected size before
+ * writing, instead of growing it chunk by chunk, so file size is updated once.
+ * It's only a size hint: the file is extended by writing its last block,
+ * so it's sparse until written and file system doesn't reserve the space,
+ * the write still may fail when the disk is full. On completion the file
+ * is truncated to the actual size of written data, so it's safe to specify
+ * greater size than actual. It can't be used with {@code APPEND} option.
+ * </p>
+ * @since 1.0
+ */
+public final class ExpectedSize implements OpenOption {
+
+    /**
+     * Expected size.
+     */
+    private final long size;
+
+    /**
+     * New expected size hint.
+     * @param size Expected size in bytes, zero to skip extension
+     */
+    public ExpectedSize(final long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Expected size can't be negative");
+        }
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExpectedSize(%d)", this.size);
+    }
+
+    /**
+     * Extend file to expected size by positional write of tail buffer.
+     * <p>
+     * The tail buffer is written at the position aligned to its size,
+     * so it can be used for direct IO with block-sized aligned buffer.
+     * </p>
+     * @param chan File channel
+     * @param tail Zero filled tail buffer
+     * @throws IOException On write error
+     */
+    void extend(final FileChannel chan, final ByteBuffer tail) throws IOException {
+        if (this.size > chan.size()) {
+            long pos = (this.size - 1) / tail.remaining() * tail.remaining();
+            while (tail.hasRemaining()) {
+                pos += chan.write(tail, pos);
+            }
+        }
+    }
+}
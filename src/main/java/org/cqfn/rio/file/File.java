@@ -6,6 +6,7 @@ package org.cqfn.rio.file;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -13,7 +14,10 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import org.cqfn.rio.Buffers;
 import org.cqfn.rio.IoExecutor;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
 import org.cqfn.rio.WriteGreed;
+import org.cqfn.rio.channel.ChannelSource;
 import org.cqfn.rio.channel.ReadableChannel;
 import org.cqfn.rio.channel.WritableChannel;
 import org.reactivestreams.Publisher;
@@ -24,6 +28,11 @@ import org.reactivestreams.Publisher;
  */
 public final class File {
 
+    /**
+     * Default chunk size of tree digest.
+     */
+    private static final int CHUNK = 4 * 1024 * 1024;
+
     /**
      * File path.
      */
@@ -34,6 +43,16 @@ public final class File {
      */
     private final ExecutorService exec;
 
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
     /**
      * New file.
      * @param path Path
@@ -48,8 +67,33 @@ public final class File {
      * @param exec Executor service
      */
     public File(final Path path, final ExecutorService exec) {
+        this(path, exec, IoMetrics.NOOP);
+    }
+
+    /**
+     * New file.
+     * @param path Path
+     * @param exec Executor service
+     * @param metrics IO metrics of file streams
+     */
+    public File(final Path path, final ExecutorService exec, final IoMetrics metrics) {
+        this(path, exec, metrics, RateLimit.UNLIMITED);
+    }
+
+    /**
+     * New file.
+     * @param path Path
+     * @param exec Executor service
+     * @param metrics IO metrics of file streams
+     * @param limit Rate limit of file reads and writes, it can be shared with other files
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public File(final Path path, final ExecutorService exec, final IoMetrics metrics,
+        final RateLimit limit) {
         this.path = path;
         this.exec = exec;
+        this.metrics = metrics;
+        this.limit = limit;
     }
 
     /**
@@ -66,10 +110,57 @@ public final class File {
      * @return Content publisher
      */
     public Publisher<ByteBuffer> content(final Buffers buf) {
-        return new ReadableChannel(
-            () -> FileChannel.open(this.path, StandardOpenOption.READ),
-            this.exec
-        ).read(buf);
+        return this.content(buf, StandardOpenOption.READ);
+    }
+
+    /**
+     * File's content.
+     * @param buf Buffers policy
+     * @param opts Options, may include {@link FileOption} and {@link ReadAhead} items
+     * @return Content publisher
+     */
+    public Publisher<ByteBuffer> content(final Buffers buf, final OpenOption... opts) {
+        final Options options = new Options(opts);
+        final ChannelSource<? extends ReadableByteChannel> src;
+        if (options.has(FileOption.DIRECT)) {
+            src = () -> new DirectIo(this.path).reader(
+                options.standard(StandardOpenOption.READ)
+            );
+        } else {
+            src = () -> {
+                final FileChannel chan = FileChannel.open(
+                    this.path, options.standard(StandardOpenOption.READ)
+                );
+                return options.find(ReadAhead.class)
+                    .map(hint -> hint.wrap(chan, this.exec))
+                    .orElse(chan);
+            };
+        }
+        return new ReadableChannel(src, this.exec, this.metrics, this.limit).read(buf);
+    }
+
+    /**
+     * Tree digest of file with chunks of 4 MiB.
+     * @return Future of digest
+     * @see #digest(int)
+     */
+    public CompletionStage<TreeDigest> digest() {
+        return this.digest(File.CHUNK);
+    }
+
+    /**
+     * Tree digest of file.
+     * <p>
+     * File chunks are read with positional reads and hashed concurrently on
+     * IO executor, then chunk digests are combined into Merkle SHA-256 tree,
+     * see {@link TreeDigest}. Reads are counted by IO metrics and rate limit.
+     * Cancelling returned future stops the reads.
+     * </p>
+     * @param chunk Chunk size in bytes
+     * @return Future of digest
+     */
+    public CompletionStage<TreeDigest> digest(final int chunk) {
+        return new ParallelDigest(this.path, this.exec, this.metrics, this.limit).digest(chunk);
     }
 
     /**
@@ -86,31 +177,48 @@ public final class File {
      * Write data to file.
      * @param data Data publisher
      * @param greed Greed level of consumer
-     * @param opts Options
+     * @param opts Options, may include {@link FileOption}, {@link Durability}
+     *  and {@link ExpectedSize} items
      * @return Future
      * @checkstyle ParameterNumberCheck (7 lines)
      */
-    @SuppressWarnings("PMD.OnlyOneReturn")
     public CompletionStage<Void> write(final Publisher<ByteBuffer> data,
         final WriteGreed greed, final OpenOption... opts) {
         return new WritableChannel(
-            () -> FileChannel.open(this.path, writeOpts(opts)),
-            this.exec
+            new WriteSource(this.path, new Options(opts), this.metrics),
+            this.exec, this.metrics, this.limit
         ).write(data, greed);
     }
 
     /**
-     * Write options.
-     * @param src User specified options
-     * @return Fixed options
+     * Write data to file atomically.
+     * @param data Data publisher
+     * @param opts Options
+     * @return Future
      */
-    private static OpenOption[] writeOpts(final OpenOption... src) {
-        final OpenOption[] opts;
-        if (src.length == 0) {
-            opts = new OpenOption[]{StandardOpenOption.WRITE, StandardOpenOption.CREATE};
-        } else {
-            opts = src;
-        }
-        return opts;
+    public CompletionStage<Void> writeAtomically(final Publisher<ByteBuffer> data,
+        final OpenOption... opts) {
+        return this.writeAtomically(data, WriteGreed.SYSTEM.adaptive(), opts);
+    }
+
+    /**
+     * Write data to file atomically.
+     * <p>
+     * Data is written into sibling temporary file which is moved to this file path
+     * with {@code ATOMIC_MOVE} option on success, so readers never see partially
+     * written file. Temporary file is deleted on error or cancellation of returned
+     * future. Use {@link Durability} option to force the data before moving.
+     * Standard open options are ignored, temporary file is always created as a new file.
+     * </p>
+     * @param data Data publisher
+     * @param greed Greed level of consumer
+     * @param opts Options, may include {@link FileOption} and {@link Durability} items
+     * @return Future
+     * @checkstyle ParameterNumberCheck (7 lines)
+     */
+    public CompletionStage<Void> writeAtomically(final Publisher<ByteBuffer> data,
+        final WriteGreed greed, final OpenOption... opts) {
+        return new AtomicWrite(this.path, this.exec, this.metrics, this.limit)
+            .write(data, greed, new Options(opts));
     }
 }
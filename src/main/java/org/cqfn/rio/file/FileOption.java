@@ -0,0 +1,30 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.nio.file.OpenOption;
+
+/**
+ * Rio specific file open options.
+ * <p>
+ * These options can be passed to {@link File} read and write methods
+ * together with standard options, they are handled by rio and are not passed
+ * to the file system provider.
+ * </p>
+ * @since 1.0
+ */
+public enum FileOption implements OpenOption {
+    /**
+     * Direct IO mode which bypasses the page cache.
+     * <p>
+     * File is opened with {@code ExtendedOpenOption.DIRECT} (JDK 10+),
+     * all reads and writes are performed with block-aligned buffers of
+     * block-sized chunks. It's useful for bulk operations which should not
+     * evict the page cache used by other readers. {@code APPEND} option
+     * is not supported in this mode.
+     * </p>
+     */
+    DIRECT
+}
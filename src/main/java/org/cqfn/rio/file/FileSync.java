@@ -0,0 +1,135 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.cqfn.rio.IoMetrics;
+
+/**
+ * File force state of single write stream.
+ * <p>
+ * It's not thread safe and should be used by write task queue only.
+ * </p>
+ * @since 1.0
+ */
+final class FileSync {
+
+    /**
+     * File channel.
+     */
+    private final FileChannel chan;
+
+    /**
+     * Force flag.
+     */
+    private final boolean force;
+
+    /**
+     * Force metadata flag.
+     */
+    private final boolean metadata;
+
+    /**
+     * Bytes period.
+     */
+    private final long bytes;
+
+    /**
+     * Time period in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Logger.
+     */
+    private final Logger logger;
+
+    /**
+     * Bytes written since last force.
+     */
+    private long pending;
+
+    /**
+     * Last force time.
+     */
+    private long last;
+
+    /**
+     * New file sync.
+     * @param chan File channel
+     * @param force Force flag
+     * @param metadata Force metadata flag
+     * @param bytes Bytes period
+     * @param nanos Time period in nanoseconds
+     * @param metrics IO metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    FileSync(final FileChannel chan, final boolean force, final boolean metadata,
+        final long bytes, final long nanos, final IoMetrics metrics) {
+        this.chan = chan;
+        this.force = force;
+        this.metadata = metadata;
+        this.bytes = bytes;
+        this.nanos = nanos;
+        this.metrics = metrics;
+        this.logger = Logger.getLogger(this.getClass().getSimpleName());
+        this.last = System.nanoTime();
+    }
+
+    /**
+     * Notify that bytes were written to the file, it may force the file
+     * if period exceeded.
+     * @param amount Amount of bytes written
+     * @throws IOException On force error
+     */
+    void written(final long amount) throws IOException {
+        this.pending += amount;
+        if (this.force && (this.pending >= this.bytes
+            || System.nanoTime() - this.last >= this.nanos)) {
+            this.sync();
+        }
+    }
+
+    /**
+     * Notify that all bytes were written, it forces pending data.
+     * @throws IOException On force error
+     */
+    void complete() throws IOException {
+        if (this.force && this.pending > 0) {
+            this.sync();
+        }
+    }
+
+    /**
+     * Force file channel.
+     * @throws IOException On force error
+     */
+    private void sync() throws IOException {
+        final long start = System.nanoTime();
+        this.chan.force(this.metadata);
+        final long end = System.nanoTime();
+        this.metrics.synced(end - start);
+        if (this.logger.isLoggable(Level.FINE)) {
+            this.logger.fine(
+                String.format(
+                    "force(%b) of %d bytes took %d us",
+                    this.metadata, this.pending,
+                    TimeUnit.NANOSECONDS.toMicros(end - start)
+                )
+            );
+        }
+        this.pending = 0;
+        this.last = end;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * File channel which truncates space of expected size and forces written data
+ * according to durability policy on close.
+ * @since 1.0
+ */
+final class FileWriteChannel implements WritableByteChannel {
+
+    /**
+     * File channel.
+     */
+    private final FileChannel chan;
+
+    /**
+     * File sync.
+     */
+    private final FileSync sync;
+
+    /**
+     * Initial file size before extension to expected size.
+     */
+    private final long initial;
+
+    /**
+     * New file write channel.
+     * @param chan File channel
+     * @param sync File sync
+     * @param initial Initial file size before extension to expected size
+     */
+    FileWriteChannel(final FileChannel chan, final FileSync sync, final long initial) {
+        this.chan = chan;
+        this.sync = sync;
+        this.initial = initial;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        final int res = this.chan.write(src);
+        this.sync.written(res);
+        return res;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.chan.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.chan.isOpen()) {
+            try {
+                final long size = Math.max(this.chan.position(), this.initial);
+                if (this.chan.size() > size) {
+                    this.chan.truncate(size);
+                }
+                this.sync.complete();
+            } finally {
+                this.chan.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.nio.file.OpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * File open options which may contain rio specific options.
+ * @since 1.0
+ */
+final class Options {
+
+    /**
+     * User specified options.
+     */
+    private final OpenOption[] src;
+
+    /**
+     * New options.
+     * @param src User specified options
+     */
+    Options(final OpenOption... src) {
+        this.src = Arrays.copyOf(src, src.length);
+    }
+
+    /**
+     * Check if option is present.
+     * @param opt Option to check
+     * @return True if specified
+     */
+    boolean has(final OpenOption opt) {
+        boolean found = false;
+        for (final OpenOption item : this.src) {
+            if (item.equals(opt)) {
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find option of type.
+     * @param type Option class
+     * @param <T> Option type
+     * @return Option if specified
+     */
+    <T extends OpenOption> Optional<T> find(final Class<T> type) {
+        Optional<T> res = Optional.empty();
+        for (final OpenOption item : this.src) {
+            if (type.isInstance(item)) {
+                res = Optional.of(type.cast(item));
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Options for file system provider without rio specific options.
+     * @param defaults Default options if no standard options were specified
+     * @return Set of options
+     */
+    Set<OpenOption> standard(final OpenOption... defaults) {
+        final Set<OpenOption> res = new HashSet<>(this.src.length);
+        for (final OpenOption item : this.src) {
+            if (!Options.rio(item)) {
+                res.add(item);
+            }
+        }
+        if (res.isEmpty()) {
+            res.addAll(Arrays.asList(defaults));
+        }
+        return res;
+    }
+
+    /**
+     * Rio specific options with replaced standard options.
+     * @param std Standard options to use
+     * @return Options array
+     */
+    OpenOption[] specific(final OpenOption... std) {
+        final List<OpenOption> res = new ArrayList<>(this.src.length + std.length);
+        for (final OpenOption item : this.src) {
+            if (Options.rio(item)) {
+                res.add(item);
+            }
+        }
+        res.addAll(Arrays.asList(std));
+        return res.toArray(new OpenOption[0]);
+    }
+
+    /**
+     * Check if option is rio specific.
+     * @param opt Option
+     * @return True if it's not supported by file system provider
+     */
+    private static boolean rio(final OpenOption opt) {
+        return opt instanceof FileOption || opt instanceof ReadAhead
+            || opt instanceof Durability || opt instanceof ExpectedSize;
+    }
+}
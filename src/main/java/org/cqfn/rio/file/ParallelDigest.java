@@ -0,0 +1,338 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.RateLimit;
+
+/**
+ * Parallel tree digest of file.
+ * <p>
+ * Chunks are read with positional reads of one shared file channel and hashed
+ * concurrently by IO executor tasks, one task per processor at most. Each task
+ * claims the next unprocessed chunk, hashes it and resubmits itself, so
+ * other IO tasks are not starved by long files. The last finished task closes
+ * the channel and completes the digest.
+ * </p>
+ * @since 1.0
+ */
+final class ParallelDigest {
+
+    /**
+     * Read buffer size of each task.
+     */
+    private static final int BUFFER = 64 * 1024;
+
+    /**
+     * File path.
+     */
+    private final Path path;
+
+    /**
+     * IO executor.
+     */
+    private final ExecutorService exec;
+
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * Rate limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * New parallel digest.
+     * @param path File path
+     * @param exec IO executor
+     * @param metrics IO metrics
+     * @param limit Rate limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ParallelDigest(final Path path, final ExecutorService exec, final IoMetrics metrics,
+        final RateLimit limit) {
+        this.path = path;
+        this.exec = exec;
+        this.metrics = metrics;
+        this.limit = limit;
+    }
+
+    /**
+     * Digest file.
+     * @param chunk Chunk size
+     * @return Future of tree digest, cancelling it stops the reads
+     */
+    CompletableFuture<TreeDigest> digest(final int chunk) {
+        if (chunk <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Chunk size should be positive: %d", chunk)
+            );
+        }
+        final CompletableFuture<TreeDigest> res = new CompletableFuture<>();
+        try {
+            this.start(FileChannel.open(this.path, StandardOpenOption.READ), chunk, res);
+        } catch (final IOException err) {
+            res.completeExceptionally(err);
+        }
+        return res;
+    }
+
+    /**
+     * Start digest tasks. Active counter holds one extra guard slot until all
+     * tasks are submitted, so the channel is closed exactly once even if
+     * the executor rejects some of them.
+     * @param chan File channel, it's closed by the last task
+     * @param chunk Chunk size
+     * @param res Result
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void start(final FileChannel chan, final int chunk,
+        final CompletableFuture<TreeDigest> res) {
+        final Digesting state = new Digesting(chan, chunk, res);
+        int tasks = 0;
+        int started = 0;
+        state.active.set(1);
+        try {
+            tasks = Math.min(state.count(), Runtime.getRuntime().availableProcessors());
+            state.active.addAndGet(tasks);
+            for (; started < tasks; ++started) {
+                this.exec.execute(new Task(state));
+            }
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final IOException | RuntimeException err) {
+            res.completeExceptionally(err);
+        } finally {
+            for (int task = started; task <= tasks; ++task) {
+                state.finish();
+            }
+        }
+    }
+
+    /**
+     * Shared state of file digest.
+     * @since 1.0
+     */
+    private static final class Digesting {
+
+        /**
+         * File channel.
+         */
+        private final FileChannel chan;
+
+        /**
+         * Chunk size.
+         */
+        private final int chunk;
+
+        /**
+         * File size.
+         */
+        private long size;
+
+        /**
+         * Chunk digests.
+         */
+        private byte[][] leaves;
+
+        /**
+         * Next chunk to claim.
+         */
+        private final AtomicInteger next;
+
+        /**
+         * Amount of running tasks.
+         */
+        private final AtomicInteger active;
+
+        /**
+         * Result.
+         */
+        private final CompletableFuture<TreeDigest> res;
+
+        /**
+         * New state.
+         * @param chan File channel
+         * @param chunk Chunk size
+         * @param res Result
+         */
+        Digesting(final FileChannel chan, final int chunk,
+            final CompletableFuture<TreeDigest> res) {
+            this.chan = chan;
+            this.chunk = chunk;
+            this.next = new AtomicInteger();
+            this.active = new AtomicInteger();
+            this.res = res;
+        }
+
+        /**
+         * Read file size and allocate chunk digests.
+         * @return Amount of chunks
+         * @throws IOException If failed to get file size
+         */
+        int count() throws IOException {
+            this.size = this.chan.size();
+            final long count = Math.max(1L, (this.size + this.chunk - 1) / this.chunk);
+            if (count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Chunk size %d is too small for %d bytes", this.chunk, this.size
+                    )
+                );
+            }
+            this.leaves = new byte[(int) count][];
+            return this.leaves.length;
+        }
+
+        /**
+         * Task is finished, the last one closes the channel and completes the result.
+         */
+        void finish() {
+            if (this.active.decrementAndGet() == 0) {
+                try {
+                    this.chan.close();
+                } catch (final IOException err) {
+                    Logger.getLogger(ParallelDigest.class.getSimpleName())
+                        .warning(String.format("Failed to close file channel: %s", err));
+                }
+                if (!this.res.isDone()) {
+                    this.res.complete(new TreeDigest(this.chunk, Arrays.asList(this.leaves)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Digest task, it hashes one chunk per run.
+     * @since 1.0
+     */
+    private final class Task implements Runnable {
+
+        /**
+         * Shared state.
+         */
+        private final Digesting state;
+
+        /**
+         * Message digest.
+         */
+        private final MessageDigest sha;
+
+        /**
+         * Read buffer.
+         */
+        private final ByteBuffer buf;
+
+        /**
+         * Current chunk, negative if not claimed.
+         */
+        private int index;
+
+        /**
+         * Read position.
+         */
+        private long pos;
+
+        /**
+         * End of current chunk.
+         */
+        private long end;
+
+        /**
+         * New task.
+         * @param state Shared state
+         */
+        Task(final Digesting state) {
+            this.state = state;
+            this.sha = TreeDigest.sha();
+            this.buf = ByteBuffer.allocate(Math.min(ParallelDigest.BUFFER, state.chunk));
+            this.index = -1;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        public void run() {
+            try {
+                if (this.state.res.isDone() || this.index < 0 && !this.claim()) {
+                    this.state.finish();
+                } else if (this.hash()) {
+                    this.state.leaves[this.index] = this.sha.digest();
+                    this.index = -1;
+                    ParallelDigest.this.exec.execute(this);
+                }
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final IOException | RuntimeException err) {
+                this.state.res.completeExceptionally(err);
+                this.state.finish();
+            }
+        }
+
+        /**
+         * Claim next chunk.
+         * @return False if there are no chunks left
+         */
+        private boolean claim() {
+            this.index = this.state.next.getAndIncrement();
+            final boolean res = this.index < this.state.leaves.length;
+            if (res) {
+                this.pos = (long) this.index * this.state.chunk;
+                this.end = Math.min(this.state.size, this.pos + this.state.chunk);
+                this.sha.update(TreeDigest.LEAF);
+            }
+            return res;
+        }
+
+        /**
+         * Hash current chunk until its end or rate limit delay.
+         * @return True if chunk is hashed, false if the task is rescheduled
+         * @throws IOException On read error
+         */
+        private boolean hash() throws IOException {
+            long delay = 0L;
+            while (this.pos < this.end && delay == 0L) {
+                delay = ParallelDigest.this.limit.delay();
+                if (delay > 0L) {
+                    ParallelDigest.this.limit.schedule(
+                        delay, () -> ParallelDigest.this.exec.execute(this)
+                    );
+                } else {
+                    ((Buffer) this.buf).clear();
+                    ((Buffer) this.buf).limit(
+                        (int) Math.min(this.buf.capacity(), this.end - this.pos)
+                    );
+                    final long start = System.nanoTime();
+                    final int read = this.state.chan.read(this.buf, this.pos);
+                    if (read < 0) {
+                        throw new EOFException(
+                            String.format(
+                                "File %s was truncated at %d", ParallelDigest.this.path, this.pos
+                            )
+                        );
+                    }
+                    ParallelDigest.this.metrics.read(read, System.nanoTime() - start);
+                    ParallelDigest.this.limit.consume(read);
+                    ((Buffer) this.buf).flip();
+                    this.sha.update(this.buf);
+                    this.pos += read;
+                }
+            }
+            return delay == 0L;
+        }
+    }
+}
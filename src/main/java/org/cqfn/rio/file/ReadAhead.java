@@ -0,0 +1,71 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.OpenOption;
+import java.util.concurrent.Executor;
+
+/**
+ * Read-ahead hint for sequential file reading.
+ * <p>
+ * When passed to {@link File#content(org.cqfn.rio.Buffers, OpenOption...)},
+ * the file is prefetched into the page cache by a background task with
+ * positional reads, keeping {@code window} bytes ahead of the consumer's
+ * position. It increases the effective throughput on devices with high latency
+ * where kernel read-ahead is too small, e.g. spinning disks or network file systems.
+ * Releasing already consumed pages is not possible without native calls
+ * on JVM, use {@link FileOption#DIRECT} to bypass the page cache completely.
+ * This hint is ignored in direct IO mode.
+ * </p>
+ * @since 1.0
+ */
+public final class ReadAhead implements OpenOption {
+
+    /**
+     * Bytes in one mebibyte.
+     */
+    private static final long MIB = 1024L * 1024L;
+
+    /**
+     * Read-ahead window in bytes.
+     */
+    private final long window;
+
+    /**
+     * New read-ahead hint of 4 MiB.
+     * @checkstyle MagicNumberCheck (3 lines)
+     */
+    public ReadAhead() {
+        this(4L * ReadAhead.MIB);
+    }
+
+    /**
+     * New read-ahead hint.
+     * @param window Amount of bytes to prefetch ahead of consumer
+     */
+    public ReadAhead(final long window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Read-ahead window should be positive");
+        }
+        this.window = window;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReadAhead(%d)", this.window);
+    }
+
+    /**
+     * Wrap file channel with read-ahead prefetching.
+     * @param chan File channel to read
+     * @param exec Executor for prefetch tasks
+     * @return Readable channel
+     */
+    ReadableByteChannel wrap(final FileChannel chan, final Executor exec) {
+        return new ReadAheadChannel(chan, this.window, exec);
+    }
+}
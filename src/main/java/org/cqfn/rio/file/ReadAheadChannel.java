@@ -0,0 +1,130 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * File channel which prefetches data ahead of reader position.
+ * <p>
+ * Prefetch task is running on executor when the reader passed a half
+ * of prefetched window, only one task is running at a time.
+ * It reads the file with positional reads into scratch buffer which is dropped,
+ * so the data stays in the page cache for next sequential reads.
+ * </p>
+ * @since 1.0
+ */
+final class ReadAheadChannel implements ReadableByteChannel {
+
+    /**
+     * Prefetch chunk size.
+     */
+    private static final int CHUNK = 256 * 1024;
+
+    /**
+     * File channel.
+     */
+    private final FileChannel chan;
+
+    /**
+     * Read-ahead window.
+     */
+    private final long window;
+
+    /**
+     * Executor for prefetch tasks.
+     */
+    private final Executor exec;
+
+    /**
+     * Prefetch task running flag.
+     */
+    private final AtomicBoolean running;
+
+    /**
+     * Scratch buffer for prefetch task, it's accessed only by running task.
+     */
+    private final ByteBuffer scratch;
+
+    /**
+     * Reader position.
+     */
+    private volatile long pos;
+
+    /**
+     * End of prefetched range, it's updated only by running task.
+     */
+    private volatile long fetched;
+
+    /**
+     * New read-ahead channel.
+     * @param chan File channel
+     * @param window Read-ahead window
+     * @param exec Executor for prefetch tasks
+     */
+    ReadAheadChannel(final FileChannel chan, final long window, final Executor exec) {
+        this.chan = chan;
+        this.window = window;
+        this.exec = exec;
+        this.running = new AtomicBoolean();
+        this.scratch = ByteBuffer.allocateDirect(ReadAheadChannel.CHUNK);
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        final int read = this.chan.read(dst);
+        if (read >= 0) {
+            this.pos = this.chan.position();
+            if (this.fetched - this.pos < this.window / 2
+                && this.running.compareAndSet(false, true)) {
+                this.exec.execute(this::prefetch);
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.chan.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.chan.close();
+    }
+
+    /**
+     * Prefetch file data up to read-ahead window.
+     */
+    private void prefetch() {
+        try {
+            long end = Math.max(this.fetched, this.pos);
+            while (this.chan.isOpen() && end < this.pos + this.window) {
+                ((Buffer) this.scratch).clear();
+                final int read = this.chan.read(this.scratch, end);
+                if (read <= 0) {
+                    end = Long.MAX_VALUE - this.window;
+                    break;
+                }
+                end += read;
+                this.fetched = end;
+            }
+            this.fetched = end;
+        } catch (final IOException err) {
+            Logger.getLogger(this.getClass().getSimpleName())
+                .log(Level.FINE, "Prefetch failed", err);
+        } finally {
+            this.running.set(false);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Merkle SHA-256 tree digest of file chunks.
+ * <p>
+ * File is split into chunks of fixed size, the last one may be shorter,
+ * and an empty file has one empty chunk. Digest of chunk is
+ * {@code SHA-256(0x00 || chunk)}, digest of tree node is
+ * {@code SHA-256(0x01 || left || right)}, and the last node of odd level is
+ * promoted to the next level unchanged. Chunk digests can be used to verify or
+ * deduplicate the parts of file, root digest identifies the whole content
+ * for the same chunk size.
+ * </p>
+ * @since 1.0
+ */
+public final class TreeDigest {
+
+    /**
+     * Hash algorithm.
+     */
+    static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Prefix of chunk digest.
+     */
+    static final byte LEAF = 0x00;
+
+    /**
+     * Prefix of tree node digest.
+     */
+    private static final byte NODE = 0x01;
+
+    /**
+     * Hex digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Chunk size.
+     */
+    private final int size;
+
+    /**
+     * Chunk digests.
+     */
+    private final List<byte[]> leaves;
+
+    /**
+     * Root digest.
+     */
+    private final byte[] top;
+
+    /**
+     * New tree digest.
+     * @param size Chunk size
+     * @param leaves Chunk digests in file order
+     */
+    TreeDigest(final int size, final List<byte[]> leaves) {
+        this.size = size;
+        this.leaves = Collections.unmodifiableList(leaves);
+        this.top = TreeDigest.reduce(leaves);
+    }
+
+    /**
+     * Chunk size.
+     * @return Size in bytes
+     */
+    public int chunk() {
+        return this.size;
+    }
+
+    /**
+     * Chunk digests.
+     * @return Digests in file order
+     */
+    public List<byte[]> chunks() {
+        final List<byte[]> res = new ArrayList<>(this.leaves.size());
+        for (final byte[] leaf : this.leaves) {
+            res.add(leaf.clone());
+        }
+        return res;
+    }
+
+    /**
+     * Root digest.
+     * @return Digest bytes
+     */
+    public byte[] root() {
+        return this.top.clone();
+    }
+
+    /**
+     * Root digest as lower case hex string.
+     * @return Hex string
+     */
+    public String hex() {
+        final char[] res = new char[this.top.length * 2];
+        for (int pos = 0; pos < this.top.length; ++pos) {
+            res[pos * 2] = TreeDigest.HEX[(this.top[pos] >> 4) & 0xf];
+            res[pos * 2 + 1] = TreeDigest.HEX[this.top[pos] & 0xf];
+        }
+        return new String(res);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s(%d x %d B: %s)",
+            this.getClass().getSimpleName(), this.leaves.size(), this.size, this.hex()
+        );
+    }
+
+    /**
+     * New SHA-256 message digest.
+     * @return Message digest
+     */
+    static MessageDigest sha() {
+        try {
+            return MessageDigest.getInstance(TreeDigest.ALGORITHM);
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException(
+                String.format("Message digest %s is not available", TreeDigest.ALGORITHM), err
+            );
+        }
+    }
+
+    /**
+     * Reduce chunk digests to root digest.
+     * @param leaves Chunk digests
+     * @return Root digest
+     */
+    private static byte[] reduce(final List<byte[]> leaves) {
+        final MessageDigest sha = TreeDigest.sha();
+        List<byte[]> level = leaves;
+        while (level.size() > 1) {
+            final List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int pos = 0; pos < level.size(); pos += 2) {
+                if (pos + 1 < level.size()) {
+                    sha.update(TreeDigest.NODE);
+                    sha.update(level.get(pos));
+                    sha.update(level.get(pos + 1));
+                    next.add(sha.digest());
+                } else {
+                    next.add(level.get(pos));
+                }
+            }
+            level = next;
+        }
+        return Arrays.copyOf(level.get(0), level.get(0).length);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.channel.ChannelSource;
+
+/**
+ * Source of file channel for writing, configured by options.
+ * @since 1.0
+ */
+final class WriteSource implements ChannelSource<WritableByteChannel> {
+
+    /**
+     * File path.
+     */
+    private final Path path;
+
+    /**
+     * Write options.
+     */
+    private final Options opts;
+
+    /**
+     * IO metrics.
+     */
+    private final IoMetrics metrics;
+
+    /**
+     * New write channel source.
+     * @param path File path
+     * @param opts Options
+     * @param metrics IO metrics to report file sync
+     */
+    WriteSource(final Path path, final Options opts, final IoMetrics metrics) {
+        this.path = path;
+        this.opts = opts;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public WritableByteChannel channel() throws IOException {
+        final Set<OpenOption> std = this.opts.standard(
+            StandardOpenOption.WRITE, StandardOpenOption.CREATE
+        );
+        if (std.contains(StandardOpenOption.APPEND)
+            && this.opts.find(ExpectedSize.class).isPresent()) {
+            throw new IOException("APPEND option is not supported with expected size");
+        }
+        final Durability durability = this.opts.find(Durability.class)
+            .orElse(Durability.NONE);
+        final ExpectedSize expected = this.opts.find(ExpectedSize.class)
+            .orElse(new ExpectedSize(0));
+        final WritableByteChannel res;
+        if (this.opts.has(FileOption.DIRECT)) {
+            res = new DirectIo(this.path).writer(std, durability, expected, this.metrics);
+        } else if (durability.equals(Durability.NONE)
+            && !this.opts.find(ExpectedSize.class).isPresent()) {
+            res = FileChannel.open(this.path, std);
+        } else {
+            final FileChannel chan = FileChannel.open(this.path, std);
+            try {
+                final long initial = chan.size();
+                expected.extend(chan, ByteBuffer.allocate(1));
+                res = new FileWriteChannel(chan, durability.sync(chan, this.metrics), initial);
+            } catch (final IOException err) {
+                chan.close();
+                throw err;
+            }
+        }
+        return res;
+    }
+}
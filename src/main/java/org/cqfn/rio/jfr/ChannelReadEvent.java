@@ -0,0 +1,62 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Channel read call event.
+ * <p>
+ * Only calls which are longer than one millisecond are recorded by default,
+ * set {@code threshold} of {@code org.cqfn.rio.ChannelRead} event to zero
+ * to record all of them.
+ * </p>
+ * @since 1.0
+ */
+@Name("org.cqfn.rio.ChannelRead")
+@Label("Channel Read")
+@Category("rio")
+@Description("Read call of channel")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class ChannelReadEvent extends Event {
+
+    /**
+     * Event type.
+     */
+    private static final EventType TYPE = EventType.getEventType(ChannelReadEvent.class);
+
+    /**
+     * Bytes read.
+     */
+    @Label("Bytes Read")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Check if event is enabled by any recording.
+     * @return True if enabled
+     */
+    public static boolean enabled() {
+        return ChannelReadEvent.TYPE.isEnabled();
+    }
+
+    /**
+     * Finish the event.
+     * @param amount Bytes read, negative on end of stream
+     */
+    public void finish(final long amount) {
+        this.bytes = amount;
+        this.commit();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Drain loop event of task queue, it starts when the loop starts on IO thread
+ * and ends when the loop exits.
+ * @since 1.0
+ */
+@Name("org.cqfn.rio.Drain")
+@Label("Drain Loop")
+@Category("rio")
+@Description("Drain loop of read or write task queue")
+@StackTrace(false)
+public final class DrainEvent extends Event {
+
+    /**
+     * Event type.
+     */
+    private static final EventType TYPE = EventType.getEventType(DrainEvent.class);
+
+    /**
+     * Queue type.
+     */
+    @Label("Queue")
+    private String queue;
+
+    /**
+     * Requests processed.
+     */
+    @Label("Iterations")
+    private long iterations;
+
+    /**
+     * Check if event is enabled by any recording.
+     * @return True if enabled
+     */
+    public static boolean enabled() {
+        return DrainEvent.TYPE.isEnabled();
+    }
+
+    /**
+     * Finish the event.
+     * @param type Queue type: read or write
+     * @param count Amount of processed requests
+     */
+    public void finish(final String type, final long count) {
+        this.queue = type;
+        this.iterations = count;
+        this.commit();
+    }
+}
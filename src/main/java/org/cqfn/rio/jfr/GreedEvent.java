@@ -0,0 +1,75 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Adjustment event of adaptive write greed.
+ * @since 1.0
+ */
+@Name("org.cqfn.rio.GreedAdjust")
+@Label("Greed Adjustment")
+@Category("rio")
+@Description("Adaptive write greed changed requested amount or shift")
+@StackTrace(false)
+public final class GreedEvent extends Event {
+
+    /**
+     * Queue size.
+     */
+    @Label("Queue Size")
+    private long queue;
+
+    /**
+     * Old amount.
+     */
+    @Label("Old Amount")
+    private long oldamount;
+
+    /**
+     * Old shift.
+     */
+    @Label("Old Shift")
+    private long oldshift;
+
+    /**
+     * New amount.
+     */
+    @Label("New Amount")
+    private long newamount;
+
+    /**
+     * New shift.
+     */
+    @Label("New Shift")
+    private long newshift;
+
+    /**
+     * Commit the event if enabled.
+     * @param size Queue size
+     * @param prev Old amount
+     * @param pshift Old shift
+     * @param next New amount
+     * @param nshift New shift
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public void emit(final long size, final long prev, final long pshift,
+        final long next, final long nshift) {
+        if (this.isEnabled()) {
+            this.queue = size;
+            this.oldamount = prev;
+            this.oldshift = pshift;
+            this.newamount = next;
+            this.newshift = nshift;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.jfr;
+
+/**
+ * Flight Recorder support.
+ * @since 1.0
+ */
+public final class Jfr {
+
+    /**
+     * True if Flight Recorder API is available in runtime and events were not
+     * disabled by {@code org.cqfn.rio.Jfr#enabled} system property.
+     */
+    public static final boolean AVAILABLE = Jfr.available();
+
+    /**
+     * Ctor.
+     */
+    private Jfr() {
+    }
+
+    /**
+     * Check if Flight Recorder events can be used.
+     * @return True if available
+     */
+    private static boolean available() {
+        boolean res = Boolean.parseBoolean(
+            System.getProperty("org.cqfn.rio.Jfr#enabled", Boolean.TRUE.toString())
+        );
+        if (res) {
+            try {
+                Class.forName("jdk.jfr.Event");
+            } catch (final ClassNotFoundException | LinkageError err) {
+                res = false;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Subscription lifecycle event of read publisher or write subscriber.
+ * @since 1.0
+ */
+@Name("org.cqfn.rio.Subscription")
+@Label("Subscription")
+@Category("rio")
+@Description("Subscription lifecycle signal: subscribe, complete, error or cancel")
+@StackTrace(false)
+public final class SubscriptionEvent extends Event {
+
+    /**
+     * Stream type.
+     */
+    @Label("Stream")
+    private String stream;
+
+    /**
+     * Signal.
+     */
+    @Label("Signal")
+    private String signal;
+
+    /**
+     * Commit the event if enabled.
+     * @param type Stream type: read or write
+     * @param sig Signal name
+     */
+    public void emit(final String type, final String sig) {
+        if (this.isEnabled()) {
+            this.stream = type;
+            this.signal = sig;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+
+/**
+ * JDK Flight Recorder events.
+ * <p>
+ * Events classes extend {@code jdk.jfr.Event}, which is not available on some
+ * JDK 8 builds, so rio code creates them only if {@link org.cqfn.rio.jfr.Jfr#AVAILABLE}
+ * is true. Events of channel calls and drain loops are created only if their
+ * {@code enabled()} check passes, so hot paths don't allocate events while
+ * nothing is recorded. All events are in {@code rio} category.
+ * </p>
+ * @since 1.0
+ */
+package org.cqfn.rio.jfr;
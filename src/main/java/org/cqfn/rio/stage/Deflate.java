@@ -0,0 +1,73 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import org.cqfn.rio.Buffers;
+import org.reactivestreams.Processor;
+
+/**
+ * Deflate compression stages, in zlib format.
+ * <p>
+ * Heap output buffers are recommended, since deflater works with arrays:
+ * they are filled directly, and direct buffers are filled through a copy.
+ * </p>
+ * @see Gzip
+ * @since 1.0
+ */
+public final class Deflate {
+
+    /**
+     * Output buffers.
+     */
+    private final Buffers buffers;
+
+    /**
+     * Compression level.
+     */
+    private final int level;
+
+    /**
+     * Deflate stages with heap buffers of 16 KiB and default level.
+     */
+    public Deflate() {
+        this(Buffers.Heap.K16);
+    }
+
+    /**
+     * Deflate stages with default level.
+     * @param buffers Output buffers
+     */
+    public Deflate(final Buffers buffers) {
+        this(buffers, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Deflate stages.
+     * @param buffers Output buffers
+     * @param level Compression level, see {@link Deflater}
+     */
+    public Deflate(final Buffers buffers, final int level) {
+        this.buffers = buffers;
+        this.level = level;
+    }
+
+    /**
+     * New compression stage.
+     * @return Processor
+     */
+    public Processor<ByteBuffer, ByteBuffer> compress() {
+        return new TransformProcessor(new DeflateTransform(this.buffers, this.level, false));
+    }
+
+    /**
+     * New decompression stage.
+     * @return Processor
+     */
+    public Processor<ByteBuffer, ByteBuffer> decompress() {
+        return new TransformProcessor(new InflateTransform(this.buffers, false));
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.cqfn.rio.Buffers;
+
+/**
+ * Deflate compression transform, in zlib or gzip format.
+ * <p>
+ * Heap buffers are compressed from and into their backing arrays directly,
+ * direct buffers are compressed without copying on JDK 11 and later, or copied
+ * through scratch arrays on older JDK, see {@link Zlib}. Output buffers are
+ * filled completely, except the last one.
+ * </p>
+ * @since 1.0
+ */
+final class DeflateTransform implements Transform {
+
+    /**
+     * Scratch arrays size.
+     */
+    private static final int SCRATCH = 16 * 1024;
+
+    /**
+     * Gzip header: magic, deflate method, no flags, no time, no extra flags,
+     * unknown OS.
+     */
+    private static final byte[] HEADER = {
+        (byte) 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff,
+    };
+
+    /**
+     * Output buffers.
+     */
+    private final Buffers buffers;
+
+    /**
+     * Deflater.
+     */
+    private final Deflater deflater;
+
+    /**
+     * Checksum of gzip member, or null for zlib format.
+     */
+    private final CRC32 crc;
+
+    /**
+     * Scratch array for direct input buffers.
+     */
+    private byte[] scratch;
+
+    /**
+     * Scratch array for direct output buffers.
+     */
+    private byte[] spill;
+
+    /**
+     * Output buffer which is being filled.
+     */
+    private ByteBuffer out;
+
+    /**
+     * Uncompressed size.
+     */
+    private long size;
+
+    /**
+     * Amount of input bytes consumed by deflater and accounted in input buffer.
+     */
+    private long read;
+
+    /**
+     * Header was sent.
+     */
+    private boolean head;
+
+    /**
+     * Trailer was sent.
+     */
+    private boolean tail;
+
+    /**
+     * New deflate transform.
+     * @param buffers Output buffers
+     * @param level Compression level
+     * @param gzip Gzip format if true, zlib otherwise
+     */
+    DeflateTransform(final Buffers buffers, final int level, final boolean gzip) {
+        this.buffers = buffers;
+        this.deflater = new Deflater(level, gzip);
+        if (gzip) {
+            this.crc = new CRC32();
+        } else {
+            this.crc = null;
+            this.head = true;
+            this.tail = true;
+        }
+        this.scratch = new byte[0];
+        this.spill = new byte[0];
+    }
+
+    @Override
+    @SuppressWarnings("PMD.OnlyOneReturn")
+    public ByteBuffer next(final ByteBuffer input, final boolean last) {
+        if (!this.head) {
+            this.head = true;
+            return ByteBuffer.wrap(DeflateTransform.HEADER.clone());
+        }
+        while (!this.deflater.finished()) {
+            if (this.deflater.needsInput()) {
+                if (input.hasRemaining()) {
+                    this.feed(input);
+                } else if (last) {
+                    this.deflater.finish();
+                } else {
+                    return null;
+                }
+            }
+            if (this.out == null) {
+                this.out = this.buffers.create();
+            }
+            this.deflate(this.out);
+            this.consume(input);
+            if (!this.out.hasRemaining()) {
+                return this.take();
+            }
+        }
+        return this.finish();
+    }
+
+    @Override
+    public void abort(final Throwable err) {
+        this.deflater.end();
+    }
+
+    /**
+     * Send remaining output and trailer after deflater is finished.
+     * @return Output buffer or null if everything was sent
+     */
+    private ByteBuffer finish() {
+        final ByteBuffer res;
+        if (this.out != null && this.out.position() > 0) {
+            res = this.take();
+        } else if (this.tail) {
+            this.out = null;
+            this.deflater.end();
+            res = null;
+        } else {
+            this.tail = true;
+            res = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            res.putInt((int) this.crc.getValue());
+            res.putInt((int) this.size);
+            ((Buffer) res).flip();
+        }
+        return res;
+    }
+
+    /**
+     * Take filled output buffer.
+     * @return Output buffer
+     */
+    private ByteBuffer take() {
+        final ByteBuffer res = this.out;
+        this.out = null;
+        ((Buffer) res).flip();
+        return res;
+    }
+
+    /**
+     * Feed deflater with input, input position is not moved until
+     * deflater consumes it.
+     * @param input Input buffer
+     */
+    private void feed(final ByteBuffer input) {
+        if (input.hasArray()) {
+            this.deflater.setInput(
+                input.array(), input.arrayOffset() + input.position(), input.remaining()
+            );
+        } else if (Zlib.available()) {
+            Zlib.input(this.deflater, input.duplicate());
+        } else {
+            final int len = Math.min(input.remaining(), DeflateTransform.SCRATCH);
+            if (this.scratch.length < len) {
+                this.scratch = new byte[DeflateTransform.SCRATCH];
+            }
+            input.duplicate().get(this.scratch, 0, len);
+            this.deflater.setInput(this.scratch, 0, len);
+        }
+    }
+
+    /**
+     * Move input position by the amount of bytes consumed by deflater.
+     * @param input Input buffer
+     */
+    private void consume(final ByteBuffer input) {
+        final long total = this.deflater.getBytesRead();
+        final int len = (int) (total - this.read);
+        this.read = total;
+        if (len > 0) {
+            if (this.crc != null) {
+                final ByteBuffer part = input.duplicate();
+                ((Buffer) part).limit(input.position() + len);
+                this.crc.update(part);
+            }
+            ((Buffer) input).position(input.position() + len);
+            this.size += len;
+        }
+    }
+
+    /**
+     * Deflate into output buffer.
+     * @param buf Output buffer
+     */
+    private void deflate(final ByteBuffer buf) {
+        if (buf.hasArray()) {
+            final int len = this.deflater.deflate(
+                buf.array(), buf.arrayOffset() + buf.position(), buf.remaining()
+            );
+            ((Buffer) buf).position(buf.position() + len);
+        } else if (Zlib.available()) {
+            Zlib.deflate(this.deflater, buf, Deflater.NO_FLUSH);
+        } else {
+            if (this.spill.length == 0) {
+                this.spill = new byte[DeflateTransform.SCRATCH];
+            }
+            buf.put(
+                this.spill, 0,
+                this.deflater.deflate(
+                    this.spill, 0, Math.min(buf.remaining(), this.spill.length)
+                )
+            );
+        }
+    }
+}
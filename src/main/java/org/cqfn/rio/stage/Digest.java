@@ -0,0 +1,274 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Digest tap stage.
+ * <p>
+ * It passes byte buffers through unchanged and updates the digest
+ * incrementally with each buffer, without copying. Digest value is completed
+ * when the stream is completed, and it fails if the stream fails or it's
+ * cancelled. It can be attached to file content or to file write:
+ * </p>
+ * <pre>{@code
+ * Digest sha = new Digest(Digest.Algorithm.SHA256);
+ * new File(src).content().subscribe(sha);
+ * new File(dst).write(sha);
+ * sha.hex().thenAccept(System.out::println);
+ * }</pre>
+ * @since 1.0
+ */
+public final class Digest implements Processor<ByteBuffer, ByteBuffer> {
+
+    /**
+     * Hex digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Digest value.
+     */
+    private final CompletableFuture<byte[]> future;
+
+    /**
+     * Origin processor.
+     */
+    private final Processor<ByteBuffer, ByteBuffer> origin;
+
+    /**
+     * New digest tap.
+     * @param algorithm Digest algorithm
+     */
+    public Digest(final Algorithm algorithm) {
+        this(algorithm.hash());
+    }
+
+    /**
+     * New message digest tap.
+     * @param digest Message digest
+     */
+    public Digest(final MessageDigest digest) {
+        this(new Hash.Message(digest));
+    }
+
+    /**
+     * New digest tap.
+     * @param hash Hash
+     */
+    private Digest(final Hash hash) {
+        this.future = new CompletableFuture<>();
+        this.origin = new TransformProcessor(new Tap(hash, this.future));
+    }
+
+    /**
+     * Digest value, it's completed when stream is completed.
+     * @return Future of digest bytes
+     */
+    public CompletionStage<byte[]> value() {
+        return this.future;
+    }
+
+    /**
+     * Digest value as lower case hex string.
+     * @return Future of hex string
+     */
+    public CompletionStage<String> hex() {
+        return this.future.thenApply(
+            bytes -> {
+                final char[] res = new char[bytes.length * 2];
+                for (int pos = 0; pos < bytes.length; ++pos) {
+                    res[pos * 2] = Digest.HEX[(bytes[pos] >> 4) & 0xf];
+                    res[pos * 2 + 1] = Digest.HEX[bytes[pos] & 0xf];
+                }
+                return new String(res);
+            }
+        );
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> sub) {
+        this.origin.subscribe(sub);
+    }
+
+    @Override
+    public void onSubscribe(final Subscription sub) {
+        this.origin.onSubscribe(sub);
+    }
+
+    @Override
+    public void onNext(final ByteBuffer buf) {
+        this.origin.onNext(buf);
+    }
+
+    @Override
+    public void onError(final Throwable err) {
+        this.origin.onError(err);
+    }
+
+    @Override
+    public void onComplete() {
+        this.origin.onComplete();
+    }
+
+    /**
+     * Digest algorithms.
+     * @since 1.0
+     */
+    public enum Algorithm {
+        /**
+         * CRC-32 checksum.
+         */
+        CRC32 {
+            @Override
+            Hash hash() {
+                return new Hash.Sum(new CRC32());
+            }
+        },
+
+        /**
+         * CRC-32C checksum, it's available on JDK 9 and later.
+         */
+        CRC32C {
+            @Override
+            Hash hash() {
+                final Checksum sum;
+                try {
+                    sum = (Checksum) Class.forName("java.util.zip.CRC32C")
+                        .getConstructor().newInstance();
+                } catch (final ReflectiveOperationException err) {
+                    throw new UnsupportedOperationException("CRC32C requires JDK 9", err);
+                }
+                return new Hash.Sum(sum);
+            }
+        },
+
+        /**
+         * Adler-32 checksum.
+         */
+        ADLER32 {
+            @Override
+            Hash hash() {
+                return new Hash.Sum(new Adler32());
+            }
+        },
+
+        /**
+         * MD5 message digest.
+         */
+        MD5 {
+            @Override
+            Hash hash() {
+                return Algorithm.message("MD5");
+            }
+        },
+
+        /**
+         * SHA-1 message digest.
+         */
+        SHA1 {
+            @Override
+            Hash hash() {
+                return Algorithm.message("SHA-1");
+            }
+        },
+
+        /**
+         * SHA-256 message digest.
+         */
+        SHA256 {
+            @Override
+            Hash hash() {
+                return Algorithm.message("SHA-256");
+            }
+        },
+
+        /**
+         * SHA-512 message digest.
+         */
+        SHA512 {
+            @Override
+            Hash hash() {
+                return Algorithm.message("SHA-512");
+            }
+        };
+
+        /**
+         * New hash of the algorithm.
+         * @return Hash
+         */
+        abstract Hash hash();
+
+        /**
+         * Message digest hash.
+         * @param name Algorithm name
+         * @return Hash
+         */
+        private static Hash message(final String name) {
+            try {
+                return new Hash.Message(MessageDigest.getInstance(name));
+            } catch (final NoSuchAlgorithmException err) {
+                throw new IllegalStateException(
+                    String.format("Message digest %s is not available", name), err
+                );
+            }
+        }
+    }
+
+    /**
+     * Transform which passes buffers through and updates the hash.
+     * @since 1.0
+     */
+    private static final class Tap implements Transform {
+
+        /**
+         * Hash.
+         */
+        private final Hash hash;
+
+        /**
+         * Digest value.
+         */
+        private final CompletableFuture<byte[]> future;
+
+        /**
+         * New tap.
+         * @param hash Hash
+         * @param future Digest value
+         */
+        Tap(final Hash hash, final CompletableFuture<byte[]> future) {
+            this.hash = hash;
+            this.future = future;
+        }
+
+        @Override
+        public ByteBuffer next(final ByteBuffer input, final boolean last) {
+            ByteBuffer res = null;
+            if (input.hasRemaining()) {
+                res = input.duplicate();
+                this.hash.update(input);
+            } else if (last) {
+                this.future.complete(this.hash.digest());
+            }
+            return res;
+        }
+
+        @Override
+        public void abort(final Throwable err) {
+            this.future.completeExceptionally(err);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import org.cqfn.rio.Buffers;
+
+/**
+ * Delimiter framing transform, it produces one record per output buffer.
+ * <p>
+ * Input is scanned for the delimiter with partial matches tracked across
+ * buffer boundaries, so multi-byte delimiters may be split between buffers.
+ * Record which fits in one input buffer is emitted as a slice of that buffer,
+ * without copying. Record which spans input buffers is accumulated in carry
+ * buffer and emitted as its slice; carry buffer is reused for next spanning
+ * records until it's full, regions of emitted records are never overwritten.
+ * Records are emitted without delimiter, trailing bytes after the last
+ * delimiter are emitted as the last record.
+ * </p>
+ * @since 1.0
+ */
+final class FrameTransform implements Transform {
+
+    /**
+     * Delimiter.
+     */
+    private final byte[] delimiter;
+
+    /**
+     * Partial match table of delimiter: length of the longest proper prefix
+     * which is also a suffix of delimiter prefix of each length.
+     */
+    private final int[] table;
+
+    /**
+     * Carry buffers.
+     */
+    private final Buffers buffers;
+
+    /**
+     * Max record length.
+     */
+    private final int max;
+
+    /**
+     * Carry buffer in write mode, or null.
+     */
+    private ByteBuffer carry;
+
+    /**
+     * Start of current record in carry buffer.
+     */
+    private int start;
+
+    /**
+     * Current record is accumulated in carry buffer.
+     */
+    private boolean spanning;
+
+    /**
+     * Amount of matched delimiter bytes.
+     */
+    private int matched;
+
+    /**
+     * New framing transform.
+     * @param delimiter Delimiter
+     * @param buffers Carry buffers
+     * @param max Max record length
+     */
+    FrameTransform(final byte[] delimiter, final Buffers buffers, final int max) {
+        this.delimiter = delimiter.clone();
+        this.table = FrameTransform.table(this.delimiter);
+        this.buffers = buffers;
+        this.max = max;
+    }
+
+    @Override
+    public ByteBuffer next(final ByteBuffer input, final boolean last) throws IOException {
+        final int begin = input.position();
+        final int found = this.scan(input);
+        ByteBuffer res = null;
+        if (found >= 0) {
+            ((Buffer) input).position(found);
+            if (this.spanning) {
+                this.append(input, begin, found);
+                res = this.carried(this.carry.position() - this.delimiter.length);
+            } else {
+                this.check(found - this.delimiter.length - begin);
+                final ByteBuffer dup = input.duplicate();
+                ((Buffer) dup).position(begin);
+                ((Buffer) dup).limit(found - this.delimiter.length);
+                res = dup.slice();
+            }
+        } else {
+            ((Buffer) input).position(input.limit());
+            if (begin < input.limit()) {
+                this.append(input, begin, input.limit());
+            } else if (last && this.spanning) {
+                res = this.carried(this.carry.position());
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public void abort(final Throwable err) {
+        this.carry = null;
+    }
+
+    /**
+     * Scan input for the end of delimiter.
+     * @param input Input buffer, its position is not moved
+     * @return Position after delimiter, or negative if not found
+     */
+    private int scan(final ByteBuffer input) {
+        int res = -1;
+        for (int pos = input.position(); pos < input.limit(); ++pos) {
+            final byte bte = input.get(pos);
+            while (this.matched > 0 && bte != this.delimiter[this.matched]) {
+                this.matched = this.table[this.matched - 1];
+            }
+            if (bte == this.delimiter[this.matched]) {
+                ++this.matched;
+            }
+            if (this.matched == this.delimiter.length) {
+                this.matched = 0;
+                res = pos + 1;
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Append input bytes to current record in carry buffer.
+     * @param input Input buffer
+     * @param from Start position
+     * @param until End position
+     * @throws IOException If record is too long
+     */
+    private void append(final ByteBuffer input, final int from, final int until)
+        throws IOException {
+        final int size = until - from;
+        final int length;
+        if (this.spanning) {
+            length = this.carry.position() - this.start;
+        } else {
+            length = 0;
+        }
+        this.check(length + size - this.delimiter.length);
+        if (this.carry == null || this.carry.remaining() < size) {
+            ByteBuffer next = this.buffers.create();
+            if (next.capacity() < length + size) {
+                next = ByteBuffer.allocate(
+                    (int) Math.max(
+                        length + size,
+                        Math.min(this.max + (long) this.delimiter.length, 2L * (length + size))
+                    )
+                );
+            }
+            if (length > 0) {
+                final ByteBuffer prev = this.carry.duplicate();
+                ((Buffer) prev).limit(this.carry.position());
+                ((Buffer) prev).position(this.start);
+                next.put(prev);
+            }
+            this.carry = next;
+            this.start = 0;
+        }
+        final ByteBuffer src = input.duplicate();
+        ((Buffer) src).position(from);
+        ((Buffer) src).limit(until);
+        this.carry.put(src);
+        this.spanning = true;
+    }
+
+    /**
+     * Emit current record from carry buffer.
+     * @param end End of record in carry buffer
+     * @return Record
+     */
+    private ByteBuffer carried(final int end) {
+        final ByteBuffer dup = this.carry.duplicate();
+        ((Buffer) dup).position(this.start);
+        ((Buffer) dup).limit(end);
+        this.start = this.carry.position();
+        this.spanning = false;
+        return dup.slice();
+    }
+
+    /**
+     * Check record length.
+     * @param length Record length
+     * @throws IOException If record is too long
+     */
+    private void check(final int length) throws IOException {
+        if (length > this.max) {
+            throw new IOException(
+                String.format("Record exceeds max length of %d bytes", this.max)
+            );
+        }
+    }
+
+    /**
+     * Partial match table of delimiter.
+     * @param delimiter Delimiter
+     * @return Table
+     */
+    private static int[] table(final byte[] delimiter) {
+        final int[] res = new int[delimiter.length];
+        int len = 0;
+        for (int pos = 1; pos < delimiter.length; ++pos) {
+            while (len > 0 && delimiter[pos] != delimiter[len]) {
+                len = res[len - 1];
+            }
+            if (delimiter[pos] == delimiter[len]) {
+                ++len;
+            }
+            res[pos] = len;
+        }
+        return res;
+    }
+}
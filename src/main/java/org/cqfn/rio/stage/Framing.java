@@ -0,0 +1,91 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.nio.ByteBuffer;
+import org.cqfn.rio.Buffers;
+import org.reactivestreams.Processor;
+
+/**
+ * Delimiter framing stage.
+ * <p>
+ * It splits byte buffers stream into records separated by delimiter, e.g.
+ * lines of log file or NDJSON documents, one record per output buffer,
+ * without delimiter. Records are produced only when downstream requested them.
+ * Record which fits in one input buffer is a slice of that buffer and
+ * shares its memory, only records which span input buffers are copied into
+ * carry buffers. Downstream should not modify the records, and it should
+ * consume them before upstream reuses input buffers.
+ * </p>
+ * <pre>{@code
+ * Processor<ByteBuffer, ByteBuffer> lines = new Framing().split();
+ * new File(log).content().subscribe(lines);
+ * Flowable.fromPublisher(lines).map(...);
+ * }</pre>
+ * @since 1.0
+ */
+public final class Framing {
+
+    /**
+     * Default max record length.
+     */
+    private static final int MAX = 1024 * 1024;
+
+    /**
+     * Delimiter.
+     */
+    private final byte[] delimiter;
+
+    /**
+     * Carry buffers.
+     */
+    private final Buffers buffers;
+
+    /**
+     * Max record length.
+     */
+    private final int max;
+
+    /**
+     * Line framing by {@code \n} with records up to 1 MiB.
+     */
+    public Framing() {
+        this((byte) '\n');
+    }
+
+    /**
+     * Framing with heap carry buffers of 16 KiB and records up to 1 MiB.
+     * @param delimiter Delimiter bytes
+     */
+    public Framing(final byte... delimiter) {
+        this(Buffers.Heap.K16, Framing.MAX, delimiter);
+    }
+
+    /**
+     * Framing.
+     * @param buffers Carry buffers, records longer than buffer size are
+     *  carried in heap buffers of larger size
+     * @param max Max record length, longer record fails the stream
+     * @param delimiter Delimiter bytes
+     */
+    public Framing(final Buffers buffers, final int max, final byte... delimiter) {
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Delimiter is empty");
+        }
+        this.delimiter = delimiter.clone();
+        this.buffers = buffers;
+        this.max = max;
+    }
+
+    /**
+     * New framing stage.
+     * @return Processor
+     */
+    public Processor<ByteBuffer, ByteBuffer> split() {
+        return new TransformProcessor(
+            new FrameTransform(this.delimiter, this.buffers, this.max)
+        );
+    }
+}
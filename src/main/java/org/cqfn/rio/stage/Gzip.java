@@ -0,0 +1,82 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import org.cqfn.rio.Buffers;
+import org.reactivestreams.Processor;
+
+/**
+ * Gzip compression stages.
+ * <p>
+ * Stages are processors of byte buffers, e.g. they can be used between
+ * {@code File.content()} and {@code File.write()}:
+ * </p>
+ * <pre>{@code
+ * Processor<ByteBuffer, ByteBuffer> gzip = new Gzip().compress();
+ * new File(src).content().subscribe(gzip);
+ * new File(dst).write(gzip);
+ * }</pre>
+ * <p>
+ * Heap output buffers are recommended, since deflater works with arrays:
+ * they are filled directly, and direct buffers are filled through a copy.
+ * Decompression accepts multi-member gzip streams.
+ * </p>
+ * @since 1.0
+ */
+public final class Gzip {
+
+    /**
+     * Output buffers.
+     */
+    private final Buffers buffers;
+
+    /**
+     * Compression level.
+     */
+    private final int level;
+
+    /**
+     * Gzip stages with heap buffers of 16 KiB and default level.
+     */
+    public Gzip() {
+        this(Buffers.Heap.K16);
+    }
+
+    /**
+     * Gzip stages with default level.
+     * @param buffers Output buffers
+     */
+    public Gzip(final Buffers buffers) {
+        this(buffers, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Gzip stages.
+     * @param buffers Output buffers
+     * @param level Compression level, see {@link Deflater}
+     */
+    public Gzip(final Buffers buffers, final int level) {
+        this.buffers = buffers;
+        this.level = level;
+    }
+
+    /**
+     * New compression stage.
+     * @return Processor
+     */
+    public Processor<ByteBuffer, ByteBuffer> compress() {
+        return new TransformProcessor(new DeflateTransform(this.buffers, this.level, true));
+    }
+
+    /**
+     * New decompression stage.
+     * @return Processor
+     */
+    public Processor<ByteBuffer, ByteBuffer> decompress() {
+        return new TransformProcessor(new InflateTransform(this.buffers, true));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.zip.Checksum;
+
+/**
+ * Incremental hash of byte buffers.
+ * @since 1.0
+ */
+interface Hash {
+
+    /**
+     * Update hash with remaining bytes of buffer, buffer position is moved
+     * to its limit.
+     * @param buf Buffer
+     */
+    void update(ByteBuffer buf);
+
+    /**
+     * Hash value.
+     * @return Hash bytes
+     */
+    byte[] digest();
+
+    /**
+     * Hash of message digest.
+     * @since 1.0
+     */
+    final class Message implements Hash {
+
+        /**
+         * Message digest.
+         */
+        private final MessageDigest origin;
+
+        /**
+         * New message digest hash.
+         * @param origin Message digest
+         */
+        Message(final MessageDigest origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        public void update(final ByteBuffer buf) {
+            this.origin.update(buf);
+        }
+
+        @Override
+        public byte[] digest() {
+            return this.origin.digest();
+        }
+    }
+
+    /**
+     * Hash of 32-bit checksum, it's encoded as 4 big-endian bytes.
+     * <p>
+     * Checksum is updated with buffer by its {@code update(ByteBuffer)}
+     * method, which reads heap and direct buffers without copying.
+     * </p>
+     * @since 1.0
+     */
+    final class Sum implements Hash {
+
+        /**
+         * Checksum.
+         */
+        private final Checksum origin;
+
+        /**
+         * Update method of checksum.
+         */
+        private final MethodHandle method;
+
+        /**
+         * New checksum hash.
+         * @param origin Checksum
+         */
+        Sum(final Checksum origin) {
+            this.origin = origin;
+            try {
+                this.method = MethodHandles.publicLookup().findVirtual(
+                    origin.getClass(), "update",
+                    MethodType.methodType(void.class, ByteBuffer.class)
+                ).bindTo(origin);
+            } catch (final ReflectiveOperationException err) {
+                throw new IllegalArgumentException(
+                    String.format("Checksum %s can't be updated with buffers", origin), err
+                );
+            }
+        }
+
+        @Override
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        public void update(final ByteBuffer buf) {
+            try {
+                this.method.invokeExact(buf);
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final Throwable err) {
+                throw new IllegalStateException("Failed to update checksum", err);
+            }
+        }
+
+        @Override
+        public byte[] digest() {
+            final long value = this.origin.getValue();
+            return new byte[]{
+                (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value,
+            };
+        }
+    }
+}
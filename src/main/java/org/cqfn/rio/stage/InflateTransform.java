@@ -0,0 +1,422 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import org.cqfn.rio.Buffers;
+
+/**
+ * Inflate decompression transform, in zlib or gzip format.
+ * <p>
+ * Gzip input may consist of multiple members, they are decompressed
+ * as one stream. Heap buffers are decompressed from and into their backing
+ * arrays directly, direct buffers are decompressed without copying on JDK 11
+ * and later, or copied through scratch arrays on older JDK, see {@link Zlib}.
+ * Output buffers are filled completely, except the last one.
+ * </p>
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class InflateTransform implements Transform {
+
+    /**
+     * Scratch arrays size.
+     */
+    private static final int SCRATCH = 16 * 1024;
+
+    /**
+     * Gzip trailer size.
+     */
+    private static final int TRAILER = 8;
+
+    /**
+     * Output buffers.
+     */
+    private final Buffers buffers;
+
+    /**
+     * Inflater.
+     */
+    private final Inflater inflater;
+
+    /**
+     * Checksum of gzip member, or null for zlib format.
+     */
+    private final CRC32 crc;
+
+    /**
+     * Header or trailer bytes of gzip member.
+     */
+    private byte[] frame;
+
+    /**
+     * Amount of bytes in frame.
+     */
+    private int framed;
+
+    /**
+     * Scratch array for direct input buffers.
+     */
+    private byte[] scratch;
+
+    /**
+     * Scratch array for direct output buffers.
+     */
+    private byte[] spill;
+
+    /**
+     * Output buffer which is being filled.
+     */
+    private ByteBuffer out;
+
+    /**
+     * Current state.
+     */
+    private State state;
+
+    /**
+     * Uncompressed size of gzip member.
+     */
+    private long size;
+
+    /**
+     * Amount of decompressed gzip members.
+     */
+    private int members;
+
+    /**
+     * Amount of input bytes given to inflater and not consumed yet, they
+     * start at input position.
+     */
+    private int fed;
+
+    /**
+     * New inflate transform.
+     * @param buffers Output buffers
+     * @param gzip Gzip format if true, zlib otherwise
+     */
+    InflateTransform(final Buffers buffers, final boolean gzip) {
+        this.buffers = buffers;
+        this.inflater = new Inflater(gzip);
+        if (gzip) {
+            this.crc = new CRC32();
+            this.state = State.HEADER;
+        } else {
+            this.crc = null;
+            this.state = State.BODY;
+        }
+        this.frame = new byte[InflateTransform.TRAILER * 2];
+        this.scratch = new byte[0];
+        this.spill = new byte[0];
+    }
+
+    @Override
+    @SuppressWarnings({"PMD.OnlyOneReturn", "PMD.CyclomaticComplexity"})
+    public ByteBuffer next(final ByteBuffer input, final boolean last) throws IOException {
+        while (this.state != State.END) {
+            if (this.state == State.HEADER) {
+                if (this.members > 0 && !input.hasRemaining() && last) {
+                    this.state = State.END;
+                } else if (!this.header(input)) {
+                    return this.more(input, last);
+                }
+            } else if (this.state == State.BODY) {
+                if (this.inflater.needsInput()) {
+                    if (!input.hasRemaining()) {
+                        return this.more(input, last);
+                    }
+                    this.feed(input);
+                }
+                if (this.out == null) {
+                    this.out = this.buffers.create();
+                }
+                this.inflate(this.out, input);
+                if (!this.out.hasRemaining()) {
+                    return this.take();
+                }
+            } else if (!this.trailer(input)) {
+                return this.more(input, last);
+            }
+        }
+        return this.finish(input, last);
+    }
+
+    @Override
+    public void abort(final Throwable err) {
+        this.inflater.end();
+    }
+
+    /**
+     * Ask for more input.
+     * @param input Input buffer, it has no remaining bytes
+     * @param last No more input
+     * @return Null
+     * @throws EOFException If it's the last input
+     */
+    private ByteBuffer more(final ByteBuffer input, final boolean last) throws EOFException {
+        if (last && !input.hasRemaining()) {
+            throw new EOFException("Unexpected end of compressed stream");
+        }
+        return null;
+    }
+
+    /**
+     * Skip input after the end of compressed stream and send remaining output
+     * with last input.
+     * @param input Input buffer
+     * @param last No more input
+     * @return Output buffer or null if everything was sent
+     */
+    private ByteBuffer finish(final ByteBuffer input, final boolean last) {
+        ((Buffer) input).position(input.limit());
+        ByteBuffer res = null;
+        if (last) {
+            if (this.out != null && this.out.position() > 0) {
+                res = this.take();
+            } else {
+                this.out = null;
+                this.inflater.end();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Take filled output buffer.
+     * @return Output buffer
+     */
+    private ByteBuffer take() {
+        final ByteBuffer res = this.out;
+        this.out = null;
+        ((Buffer) res).flip();
+        return res;
+    }
+
+    /**
+     * Read gzip member header.
+     * @param input Input buffer
+     * @return True if header was read completely
+     * @throws ZipException If header is not valid
+     */
+    private boolean header(final ByteBuffer input) throws ZipException {
+        int len = -1;
+        while (len < 0 && input.hasRemaining()) {
+            if (this.framed == this.frame.length) {
+                this.frame = Arrays.copyOf(this.frame, this.frame.length * 2);
+            }
+            this.frame[this.framed] = input.get();
+            ++this.framed;
+            len = this.length();
+        }
+        if (len == 0) {
+            this.framed = 0;
+            this.state = State.END;
+        } else if (len > 0) {
+            this.framed = 0;
+            this.size = 0;
+            this.crc.reset();
+            this.inflater.reset();
+            this.state = State.BODY;
+        }
+        return len >= 0;
+    }
+
+    /**
+     * Length of gzip header in frame.
+     * @return Header length, -1 if header is not complete, or 0 if it's not
+     *  a header after first member
+     * @throws ZipException If header is not valid
+     * @checkstyle CyclomaticComplexityCheck (50 lines)
+     */
+    @SuppressWarnings({"PMD.OnlyOneReturn", "PMD.CognitiveComplexity"})
+    private int length() throws ZipException {
+        final byte[] head = this.frame;
+        final int len = this.framed;
+        if (len >= 2 && (head[0] != (byte) 0x1f || head[1] != (byte) 0x8b)) {
+            if (this.members > 0) {
+                return 0;
+            }
+            throw new ZipException("Not in GZIP format");
+        }
+        if (len < 10) {
+            return -1;
+        }
+        if (head[2] != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        final int flags = head[3] & 0xff;
+        int pos = 10;
+        if ((flags & 4) != 0) {
+            if (len < pos + 2) {
+                return -1;
+            }
+            pos += 2 + ((head[pos] & 0xff) | (head[pos + 1] & 0xff) << 8);
+        }
+        for (final int flag : new int[]{8, 16}) {
+            if ((flags & flag) != 0) {
+                while (pos < len && head[pos] != 0) {
+                    ++pos;
+                }
+                ++pos;
+            }
+        }
+        if ((flags & 2) != 0) {
+            pos += 2;
+        }
+        if (len < pos) {
+            return -1;
+        }
+        return pos;
+    }
+
+    /**
+     * Read and verify gzip member trailer.
+     * @param input Input buffer
+     * @return True if trailer was read completely
+     * @throws ZipException If trailer doesn't match
+     */
+    private boolean trailer(final ByteBuffer input) throws ZipException {
+        final int len = Math.min(input.remaining(), InflateTransform.TRAILER - this.framed);
+        input.get(this.frame, this.framed, len);
+        this.framed += len;
+        final boolean res = this.framed == InflateTransform.TRAILER;
+        if (res) {
+            if (InflateTransform.int32(this.frame, 0) != (int) this.crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer: checksum mismatch");
+            }
+            if (InflateTransform.int32(this.frame, 4) != (int) this.size) {
+                throw new ZipException("Corrupt GZIP trailer: size mismatch");
+            }
+            this.framed = 0;
+            ++this.members;
+            this.state = State.HEADER;
+        }
+        return res;
+    }
+
+    /**
+     * Feed inflater with input, input position is not moved until
+     * inflater consumes it.
+     * @param input Input buffer
+     */
+    private void feed(final ByteBuffer input) {
+        if (input.hasArray()) {
+            this.fed = input.remaining();
+            this.inflater.setInput(
+                input.array(), input.arrayOffset() + input.position(), this.fed
+            );
+        } else if (Zlib.available()) {
+            this.fed = input.remaining();
+            Zlib.input(this.inflater, input.duplicate());
+        } else {
+            this.fed = Math.min(input.remaining(), InflateTransform.SCRATCH);
+            if (this.scratch.length < this.fed) {
+                this.scratch = new byte[InflateTransform.SCRATCH];
+            }
+            input.duplicate().get(this.scratch, 0, this.fed);
+            this.inflater.setInput(this.scratch, 0, this.fed);
+        }
+    }
+
+    /**
+     * Inflate into output buffer.
+     * @param buf Output buffer
+     * @param input Input buffer, its position is moved by the amount of
+     *  consumed input
+     * @throws ZipException If compressed data is not valid
+     */
+    private void inflate(final ByteBuffer buf, final ByteBuffer input) throws ZipException {
+        final int start = buf.position();
+        try {
+            if (buf.hasArray()) {
+                ((Buffer) buf).position(
+                    start + this.inflater.inflate(
+                        buf.array(), buf.arrayOffset() + start, buf.remaining()
+                    )
+                );
+            } else if (Zlib.available()) {
+                Zlib.inflate(this.inflater, buf);
+            } else {
+                if (this.spill.length == 0) {
+                    this.spill = new byte[InflateTransform.SCRATCH];
+                }
+                buf.put(
+                    this.spill, 0,
+                    this.inflater.inflate(
+                        this.spill, 0, Math.min(buf.remaining(), this.spill.length)
+                    )
+                );
+            }
+        } catch (final DataFormatException err) {
+            throw new ZipException(err.getMessage());
+        }
+        final int len = buf.position() - start;
+        if (this.crc != null) {
+            final ByteBuffer part = buf.duplicate();
+            ((Buffer) part).limit(buf.position());
+            ((Buffer) part).position(start);
+            this.crc.update(part);
+            this.size += len;
+        }
+        final int left = this.inflater.getRemaining();
+        ((Buffer) input).position(input.position() + this.fed - left);
+        this.fed = left;
+        if (this.inflater.finished()) {
+            this.fed = 0;
+            if (this.crc == null) {
+                this.state = State.END;
+            } else {
+                this.state = State.TRAILER;
+            }
+        } else if (len == 0 && this.inflater.needsDictionary()) {
+            throw new ZipException("Preset dictionary is not supported");
+        }
+    }
+
+    /**
+     * Little-endian 32-bit integer from array.
+     * @param arr Array
+     * @param pos Position
+     * @return Integer
+     */
+    private static int int32(final byte[] arr, final int pos) {
+        return (arr[pos] & 0xff) | (arr[pos + 1] & 0xff) << 8
+            | (arr[pos + 2] & 0xff) << 16 | (arr[pos + 3] & 0xff) << 24;
+    }
+
+    /**
+     * Transform state.
+     * @since 1.0
+     */
+    private enum State {
+        /**
+         * Reading gzip member header.
+         */
+        HEADER,
+
+        /**
+         * Decompressing deflate data.
+         */
+        BODY,
+
+        /**
+         * Reading gzip member trailer.
+         */
+        TRAILER,
+
+        /**
+         * End of stream, remaining input is ignored.
+         */
+        END
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Parallel gzip compression transform.
+ * <p>
+ * Input is split into fixed blocks which are compressed concurrently
+ * by executor into raw deflate data. Each block is primed with the last
+ * 32 KiB of previous block as a dictionary, and ends with sync flush, except
+ * the last one, so compressed blocks are concatenated in order into one
+ * standard gzip member, as pigz does. Checksum is computed sequentially,
+ * it's much faster than compression. The amount of blocks in flight
+ * is limited, input is not consumed while all of them are busy.
+ * </p>
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class ParallelDeflateTransform implements Transform {
+
+    /**
+     * Dictionary size.
+     */
+    private static final int DICT = 32 * 1024;
+
+    /**
+     * Gzip header: magic, deflate method, no flags, no time, no extra flags,
+     * unknown OS.
+     */
+    private static final byte[] HEADER = {
+        (byte) 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff,
+    };
+
+    /**
+     * Compression level.
+     */
+    private final int level;
+
+    /**
+     * Block size.
+     */
+    private final int size;
+
+    /**
+     * Max amount of blocks in flight.
+     */
+    private final int limit;
+
+    /**
+     * Compression executor.
+     */
+    private final Executor exec;
+
+    /**
+     * Compressed blocks in order.
+     */
+    private final Queue<CompletableFuture<ByteBuffer>> jobs;
+
+    /**
+     * Idle deflaters.
+     */
+    private final Queue<Deflater> deflaters;
+
+    /**
+     * Checksum.
+     */
+    private final CRC32 crc;
+
+    /**
+     * Listener of compressed blocks.
+     */
+    private volatile Runnable ready;
+
+    /**
+     * Transform is stopped, deflaters should be released.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Block which is being filled.
+     */
+    private byte[] block;
+
+    /**
+     * Amount of bytes in block.
+     */
+    private int filled;
+
+    /**
+     * Previous block, it's a dictionary of next block.
+     */
+    private byte[] prev;
+
+    /**
+     * Uncompressed size.
+     */
+    private long total;
+
+    /**
+     * Header was sent.
+     */
+    private boolean head;
+
+    /**
+     * Last block was submitted.
+     */
+    private boolean last;
+
+    /**
+     * Trailer was sent.
+     */
+    private boolean tail;
+
+    /**
+     * New parallel deflate transform.
+     * @param level Compression level
+     * @param size Block size
+     * @param exec Compression executor
+     * @param threads Amount of compression threads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ParallelDeflateTransform(final int level, final int size, final Executor exec,
+        final int threads) {
+        if (size < ParallelDeflateTransform.DICT) {
+            throw new IllegalArgumentException("Block size should be at least 32 KiB");
+        }
+        this.level = level;
+        this.size = size;
+        this.limit = Math.max(2, threads * 2);
+        this.exec = exec;
+        this.jobs = new ArrayDeque<>(this.limit);
+        this.deflaters = new ConcurrentLinkedQueue<>();
+        this.crc = new CRC32();
+        this.ready = () -> { };
+        this.block = new byte[size];
+    }
+
+    @Override
+    @SuppressWarnings("PMD.OnlyOneReturn")
+    public ByteBuffer next(final ByteBuffer input, final boolean end) throws IOException {
+        if (!this.head) {
+            this.head = true;
+            return ByteBuffer.wrap(ParallelDeflateTransform.HEADER.clone());
+        }
+        final CompletableFuture<ByteBuffer> first = this.jobs.peek();
+        if (first != null && first.isDone()) {
+            this.jobs.poll();
+            return ParallelDeflateTransform.result(first);
+        }
+        while (input.hasRemaining() && this.jobs.size() < this.limit) {
+            this.fill(input);
+            if (this.filled == this.size) {
+                this.submit(false);
+            }
+        }
+        if (end && !this.last) {
+            this.last = true;
+            this.submit(true);
+        }
+        ByteBuffer res = null;
+        if (this.last && this.jobs.isEmpty()) {
+            if (this.tail) {
+                this.release();
+            } else {
+                this.tail = true;
+                res = this.trailer();
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public void listen(final Runnable listener) {
+        this.ready = listener;
+    }
+
+    @Override
+    public boolean pending() {
+        return !this.jobs.isEmpty() || this.last && !this.tail;
+    }
+
+    @Override
+    public void abort(final Throwable err) {
+        this.release();
+    }
+
+    /**
+     * Copy input into current block.
+     * @param input Input buffer
+     */
+    private void fill(final ByteBuffer input) {
+        final int len = Math.min(input.remaining(), this.size - this.filled);
+        input.get(this.block, this.filled, len);
+        this.crc.update(this.block, this.filled, len);
+        this.filled += len;
+        this.total += len;
+    }
+
+    /**
+     * Submit current block for compression.
+     * @param fin True if it's the last block
+     */
+    private void submit(final boolean fin) {
+        final byte[] data = this.block;
+        final int len = this.filled;
+        final byte[] dict = this.prev;
+        final CompletableFuture<ByteBuffer> job = CompletableFuture.supplyAsync(
+            () -> this.compress(data, len, dict, fin), this.exec
+        );
+        this.jobs.add(job);
+        job.whenComplete((res, err) -> this.ready.run());
+        this.prev = data;
+        this.block = new byte[this.size];
+        this.filled = 0;
+    }
+
+    /**
+     * Compress the block.
+     * @param data Block data
+     * @param len Block length
+     * @param dict Previous block or null
+     * @param fin True if it's the last block
+     * @return Compressed data
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private ByteBuffer compress(final byte[] data, final int len, final byte[] dict,
+        final boolean fin) {
+        Deflater deflater = this.deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(this.level, true);
+        }
+        try {
+            if (dict != null) {
+                deflater.setDictionary(
+                    dict, dict.length - ParallelDeflateTransform.DICT, ParallelDeflateTransform.DICT
+                );
+            }
+            deflater.setInput(data, 0, len);
+            final int flush;
+            if (fin) {
+                deflater.finish();
+                flush = Deflater.NO_FLUSH;
+            } else {
+                flush = Deflater.SYNC_FLUSH;
+            }
+            byte[] out = new byte[len + (len >> 3) + 64];
+            int pos = 0;
+            while (true) {
+                pos += deflater.deflate(out, pos, out.length - pos, flush);
+                final boolean done;
+                if (fin) {
+                    done = deflater.finished();
+                } else {
+                    done = pos < out.length && deflater.needsInput();
+                }
+                if (done) {
+                    break;
+                }
+                if (pos == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+            }
+            return ByteBuffer.wrap(out, 0, pos);
+        } finally {
+            deflater.reset();
+            this.deflaters.add(deflater);
+            if (this.stopped) {
+                this.release();
+            }
+        }
+    }
+
+    /**
+     * Gzip trailer.
+     * @return Trailer buffer
+     */
+    private ByteBuffer trailer() {
+        final ByteBuffer res = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        res.putInt((int) this.crc.getValue());
+        res.putInt((int) this.total);
+        ((Buffer) res).flip();
+        return res;
+    }
+
+    /**
+     * Stop and release idle deflaters, busy deflaters are released when
+     * compression is finished.
+     */
+    private void release() {
+        this.stopped = true;
+        Deflater deflater = this.deflaters.poll();
+        while (deflater != null) {
+            deflater.end();
+            deflater = this.deflaters.poll();
+        }
+    }
+
+    /**
+     * Result of completed compression.
+     * @param job Compression job
+     * @return Compressed block
+     * @throws IOException If compression failed
+     */
+    private static ByteBuffer result(final CompletableFuture<ByteBuffer> job)
+        throws IOException {
+        try {
+            return job.join();
+        } catch (final CompletionException err) {
+            throw new IOException("Block compression failed", err.getCause());
+        }
+    }
+}
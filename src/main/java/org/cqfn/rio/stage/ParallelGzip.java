@@ -0,0 +1,101 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import org.reactivestreams.Processor;
+
+/**
+ * Parallel gzip compression stage.
+ * <p>
+ * It splits the stream into fixed blocks and compresses them concurrently,
+ * so compression scales with cores instead of one deflate thread per stream.
+ * Output is one standard gzip member, it's decompressed by any gzip
+ * implementation, including {@link Gzip#decompress()}. Each block is primed
+ * with the tail of previous block, so compression ratio is close to
+ * sequential gzip. Compressed blocks are emitted in order as they become
+ * ready, and the amount of blocks in flight is twice the amount of threads.
+ * </p>
+ * <pre>{@code
+ * Processor<ByteBuffer, ByteBuffer> gzip = new ParallelGzip().compress();
+ * new File(src).content().subscribe(gzip);
+ * new File(dst).write(gzip);
+ * }</pre>
+ * @since 1.0
+ */
+public final class ParallelGzip {
+
+    /**
+     * Default block size.
+     */
+    private static final int BLOCK = 128 * 1024;
+
+    /**
+     * Compression level.
+     */
+    private final int level;
+
+    /**
+     * Block size.
+     */
+    private final int block;
+
+    /**
+     * Compression executor.
+     */
+    private final Executor exec;
+
+    /**
+     * Amount of compression threads.
+     */
+    private final int threads;
+
+    /**
+     * Parallel gzip with default level, blocks of 128 KiB, and common pool.
+     */
+    public ParallelGzip() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Parallel gzip with blocks of 128 KiB and common pool.
+     * @param level Compression level, see {@link Deflater}
+     */
+    public ParallelGzip(final int level) {
+        this(
+            level, ParallelGzip.BLOCK,
+            ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism()
+        );
+    }
+
+    /**
+     * Parallel gzip.
+     * @param level Compression level, see {@link Deflater}
+     * @param block Block size, at least 32 KiB
+     * @param exec Compression executor
+     * @param threads Amount of executor threads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public ParallelGzip(final int level, final int block, final Executor exec,
+        final int threads) {
+        this.level = level;
+        this.block = block;
+        this.exec = exec;
+        this.threads = threads;
+    }
+
+    /**
+     * New compression stage.
+     * @return Processor
+     */
+    public Processor<ByteBuffer, ByteBuffer> compress() {
+        return new TransformProcessor(
+            new ParallelDeflateTransform(this.level, this.block, this.exec, this.threads)
+        );
+    }
+}
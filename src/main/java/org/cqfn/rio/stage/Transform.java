@@ -0,0 +1,65 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Stateful transformation of byte buffers stream.
+ * <p>
+ * {@link TransformProcessor} pulls output buffers from the transform one by one,
+ * only when downstream requested them, and feeds it with next input buffer
+ * when transform asks for more input. Transform is never accessed concurrently.
+ * </p>
+ * <p>
+ * Asynchronous transform may return null when its output is not ready yet,
+ * even if input has remaining bytes, e.g. when all its workers are busy.
+ * It should report pending output and run the listener when it can proceed.
+ * </p>
+ * @since 1.0
+ */
+public interface Transform {
+
+    /**
+     * Next output buffer.
+     * <p>
+     * Transform reads input buffer and moves its position. It returns
+     * null only if input buffer has no remaining bytes, or if it's the last
+     * input and all output was produced: no more calls are performed after that,
+     * so transform should release its resources. Asynchronous transform
+     * also returns null if output is pending.
+     * </p>
+     * @param input Input buffer, it may have no remaining bytes
+     * @param last True if there is no more input after this buffer
+     * @return Output buffer or null if more input is required
+     * @throws IOException On transform failure
+     */
+    ByteBuffer next(ByteBuffer input, boolean last) throws IOException;
+
+    /**
+     * Listen for asynchronous output, it's called once by processor.
+     * @param ready Listener to run when pending output becomes ready
+     */
+    default void listen(final Runnable ready) {
+        // synchronous transform never runs the listener
+    }
+
+    /**
+     * Check if asynchronous output is pending.
+     * @return True if output is not ready yet
+     */
+    default boolean pending() {
+        return false;
+    }
+
+    /**
+     * Release resources if stream was failed or cancelled before last output.
+     * @param err Failure or cancellation reason
+     */
+    default void abort(final Throwable err) {
+        // nothing to release by default
+    }
+}
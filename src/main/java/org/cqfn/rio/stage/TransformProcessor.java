@@ -0,0 +1,411 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jctools.queues.SpscArrayQueue;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Processor of byte buffers with {@link Transform}.
+ * <p>
+ * It honors demand in both directions: output buffers are produced
+ * by transform only when downstream requested them, and upstream is asked
+ * for a bounded prefetch of input buffers, which is replenished when
+ * three quarters of it were consumed. All signals are processed by one drain
+ * loop which runs on a thread of current signal, so transform is never
+ * accessed concurrently. Transform reads duplicates of input buffers, so
+ * positions of received buffers are not changed. Processor supports only
+ * one subscriber.
+ * </p>
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class TransformProcessor implements Processor<ByteBuffer, ByteBuffer> {
+
+    /**
+     * Default prefetch.
+     */
+    private static final int PREFETCH = 4;
+
+    /**
+     * Empty buffer.
+     */
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    /**
+     * Subscription which does nothing.
+     */
+    private static final Subscription NOP = new Subscription() {
+        @Override
+        public void request(final long count) {
+            // nothing to request
+        }
+
+        @Override
+        public void cancel() {
+            // nothing to cancel
+        }
+    };
+
+    /**
+     * Transform.
+     */
+    private final Transform transform;
+
+    /**
+     * Prefetch amount.
+     */
+    private final int prefetch;
+
+    /**
+     * Amount of consumed buffers to request more.
+     */
+    private final int limit;
+
+    /**
+     * Received input buffers.
+     */
+    private final Queue<ByteBuffer> inputs;
+
+    /**
+     * Downstream demand.
+     */
+    private final AtomicLong requested;
+
+    /**
+     * Drain loop work in progress counter.
+     */
+    private final AtomicInteger wip;
+
+    /**
+     * Upstream subscription.
+     */
+    private final AtomicReference<Subscription> upstream;
+
+    /**
+     * Subscribed flag.
+     */
+    private final AtomicBoolean subscribed;
+
+    /**
+     * Downstream subscriber, it's set after on-subscribe signal.
+     */
+    private volatile Subscriber<? super ByteBuffer> downstream;
+
+    /**
+     * Upstream completed.
+     */
+    private volatile boolean done;
+
+    /**
+     * Upstream or downstream error.
+     */
+    private volatile Throwable error;
+
+    /**
+     * Downstream cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Current input buffer, accessed by drain loop only.
+     */
+    private ByteBuffer current;
+
+    /**
+     * Output buffer ready to be sent, accessed by drain loop only.
+     */
+    private ByteBuffer ready;
+
+    /**
+     * Consumed input buffers since last request, accessed by drain loop only.
+     */
+    private int consumed;
+
+    /**
+     * Transform produced all output, accessed by drain loop only.
+     */
+    private boolean finished;
+
+    /**
+     * Terminal signal was sent, accessed by drain loop only.
+     */
+    private boolean terminated;
+
+    /**
+     * New processor with default prefetch.
+     * @param transform Transform
+     */
+    public TransformProcessor(final Transform transform) {
+        this(transform, TransformProcessor.PREFETCH);
+    }
+
+    /**
+     * New processor.
+     * @param transform Transform
+     * @param prefetch Amount of input buffers to prefetch
+     */
+    public TransformProcessor(final Transform transform, final int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch should be greater than 0");
+        }
+        this.transform = transform;
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+        this.inputs = new SpscArrayQueue<>(prefetch);
+        this.requested = new AtomicLong();
+        this.wip = new AtomicInteger();
+        this.upstream = new AtomicReference<>();
+        this.subscribed = new AtomicBoolean();
+        this.current = TransformProcessor.EMPTY;
+        transform.listen(this::drain);
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> sub) {
+        if (sub == null) {
+            throw new NullPointerException("Subscriber can't be null");
+        }
+        if (this.subscribed.compareAndSet(false, true)) {
+            sub.onSubscribe(new Downstream());
+            this.downstream = sub;
+            this.drain();
+        } else {
+            sub.onSubscribe(TransformProcessor.NOP);
+            sub.onError(new IllegalStateException("Processor supports only one subscriber"));
+        }
+    }
+
+    @Override
+    public void onSubscribe(final Subscription sub) {
+        if (sub == null) {
+            throw new NullPointerException("Subscription can't be null");
+        }
+        if (this.upstream.compareAndSet(null, sub)) {
+            if (this.cancelled) {
+                sub.cancel();
+            } else {
+                sub.request(this.prefetch);
+            }
+        } else {
+            sub.cancel();
+        }
+    }
+
+    @Override
+    public void onNext(final ByteBuffer buf) {
+        if (buf == null) {
+            throw new NullPointerException("Item can't be null");
+        }
+        if (!this.inputs.offer(buf)) {
+            this.upstream.get().cancel();
+            this.error = new IllegalStateException("Publisher emitted more buffers than requested");
+        }
+        this.drain();
+    }
+
+    @Override
+    public void onError(final Throwable err) {
+        if (err == null) {
+            throw new NullPointerException("Error can't be null");
+        }
+        this.error = err;
+        this.drain();
+    }
+
+    @Override
+    public void onComplete() {
+        this.done = true;
+        this.drain();
+    }
+
+    /**
+     * Run drain loop if it's not running, or ask running loop for one more pass.
+     */
+    private void drain() {
+        if (this.wip.getAndIncrement() == 0) {
+            int missed = 1;
+            do {
+                final Subscriber<? super ByteBuffer> sub = this.downstream;
+                if (sub != null && !this.terminated) {
+                    this.loop(sub);
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    /**
+     * Send ready output buffers to subscriber while it has demand.
+     * @param sub Subscriber
+     */
+    @SuppressWarnings(
+        {
+            "PMD.AvoidCatchingGenericException",
+            "PMD.CognitiveComplexity"
+        }
+    )
+    private void loop(final Subscriber<? super ByteBuffer> sub) {
+        try {
+            while (true) {
+                if (this.cancelled) {
+                    this.stop(new CancellationException("Cancelled by subscriber"));
+                    return;
+                }
+                final Throwable err = this.error;
+                if (err != null) {
+                    this.stop(err);
+                    sub.onError(err);
+                    return;
+                }
+                if (this.ready == null) {
+                    this.ready = this.produce();
+                }
+                if (this.ready == null) {
+                    if (this.finished) {
+                        this.terminated = true;
+                        this.downstream = null;
+                        sub.onComplete();
+                    }
+                    return;
+                }
+                if (this.requested.get() == 0) {
+                    return;
+                }
+                final ByteBuffer out = this.ready;
+                this.ready = null;
+                if (this.requested.get() != Long.MAX_VALUE) {
+                    this.requested.decrementAndGet();
+                }
+                sub.onNext(out);
+            }
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final IOException | RuntimeException err) {
+            final Subscription subscription = this.upstream.get();
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            this.stop(err);
+            sub.onError(err);
+        }
+    }
+
+    /**
+     * Produce next output buffer.
+     * @return Output buffer or null if it requires more input, or if transform
+     *  is finished
+     * @throws IOException On transform failure
+     */
+    private ByteBuffer produce() throws IOException {
+        ByteBuffer res = null;
+        while (!this.finished) {
+            final boolean complete = this.done;
+            if (!this.current.hasRemaining()) {
+                final ByteBuffer next = this.inputs.poll();
+                if (next != null) {
+                    this.current = next.duplicate();
+                    this.replenish();
+                }
+            }
+            final boolean last = complete && !this.current.hasRemaining()
+                && this.inputs.isEmpty();
+            res = this.transform.next(this.current, last);
+            if (res != null) {
+                break;
+            }
+            if (last) {
+                if (this.transform.pending()) {
+                    break;
+                }
+                this.finished = true;
+            } else if (this.current.hasRemaining() || !complete && this.inputs.isEmpty()) {
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Count consumed input buffer and request more if needed.
+     */
+    private void replenish() {
+        ++this.consumed;
+        if (this.consumed == this.limit) {
+            this.upstream.get().request(this.consumed);
+            this.consumed = 0;
+        }
+    }
+
+    /**
+     * Stop processing, abort the transform and drop buffers.
+     * @param err Reason
+     */
+    private void stop(final Throwable err) {
+        this.terminated = true;
+        this.downstream = null;
+        if (!this.finished) {
+            this.finished = true;
+            this.transform.abort(err);
+        }
+        if (this.cancelled) {
+            final Subscription subscription = this.upstream.get();
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+        this.inputs.clear();
+        this.current = TransformProcessor.EMPTY;
+        this.ready = null;
+    }
+
+    /**
+     * Downstream subscription.
+     * @since 1.0
+     */
+    private final class Downstream implements Subscription {
+
+        @Override
+        public void request(final long count) {
+            final TransformProcessor proc = TransformProcessor.this;
+            if (count <= 0) {
+                final Subscription subscription = proc.upstream.get();
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                proc.error = new IllegalArgumentException(
+                    String.format("Requested %d items, it should be positive (rule 3.9)", count)
+                );
+            } else {
+                long prev;
+                long next;
+                do {
+                    prev = proc.requested.get();
+                    next = prev + count;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                } while (!proc.requested.compareAndSet(prev, next));
+            }
+            proc.drain();
+        }
+
+        @Override
+        public void cancel() {
+            final TransformProcessor proc = TransformProcessor.this;
+            proc.cancelled = true;
+            proc.drain();
+        }
+    }
+}
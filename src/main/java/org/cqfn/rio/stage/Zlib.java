@@ -0,0 +1,154 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Byte buffer methods of deflater and inflater.
+ * <p>
+ * JDK 11 and later can compress and decompress direct buffers without
+ * copying them into arrays. These methods are bound reflectively, since the
+ * library targets Java 8; if they are not available, transforms copy direct
+ * buffers through scratch arrays.
+ * </p>
+ * @since 1.0
+ */
+final class Zlib {
+
+    /**
+     * Deflater input method {@code setInput(ByteBuffer)}, or null.
+     */
+    private static final MethodHandle DEFLATER_INPUT = Zlib.method(
+        Deflater.class, "setInput", MethodType.methodType(void.class, ByteBuffer.class)
+    );
+
+    /**
+     * Deflater output method {@code deflate(ByteBuffer, int)}, or null.
+     */
+    private static final MethodHandle DEFLATE = Zlib.method(
+        Deflater.class, "deflate", MethodType.methodType(int.class, ByteBuffer.class, int.class)
+    );
+
+    /**
+     * Inflater input method {@code setInput(ByteBuffer)}, or null.
+     */
+    private static final MethodHandle INFLATER_INPUT = Zlib.method(
+        Inflater.class, "setInput", MethodType.methodType(void.class, ByteBuffer.class)
+    );
+
+    /**
+     * Inflater output method {@code inflate(ByteBuffer)}, or null.
+     */
+    private static final MethodHandle INFLATE = Zlib.method(
+        Inflater.class, "inflate", MethodType.methodType(int.class, ByteBuffer.class)
+    );
+
+    /**
+     * Utility class.
+     */
+    private Zlib() {
+    }
+
+    /**
+     * Check if byte buffer methods are available.
+     * @return True if direct buffers can be used without copying
+     */
+    static boolean available() {
+        return Zlib.DEFLATER_INPUT != null && Zlib.DEFLATE != null
+            && Zlib.INFLATER_INPUT != null && Zlib.INFLATE != null;
+    }
+
+    /**
+     * Set deflater input, deflater moves buffer position as it consumes input.
+     * @param deflater Deflater
+     * @param input Input buffer
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    static void input(final Deflater deflater, final ByteBuffer input) {
+        try {
+            Zlib.DEFLATER_INPUT.invokeExact(deflater, input);
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable err) {
+            throw new IllegalStateException("Failed to set deflater input", err);
+        }
+    }
+
+    /**
+     * Deflate into buffer.
+     * @param deflater Deflater
+     * @param output Output buffer, its position is moved
+     * @param flush Flush mode
+     * @return Amount of compressed bytes
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    static int deflate(final Deflater deflater, final ByteBuffer output, final int flush) {
+        try {
+            return (int) Zlib.DEFLATE.invokeExact(deflater, output, flush);
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable err) {
+            throw new IllegalStateException("Failed to deflate", err);
+        }
+    }
+
+    /**
+     * Set inflater input, inflater moves buffer position as it consumes input.
+     * @param inflater Inflater
+     * @param input Input buffer
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    static void input(final Inflater inflater, final ByteBuffer input) {
+        try {
+            Zlib.INFLATER_INPUT.invokeExact(inflater, input);
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable err) {
+            throw new IllegalStateException("Failed to set inflater input", err);
+        }
+    }
+
+    /**
+     * Inflate into buffer.
+     * @param inflater Inflater
+     * @param output Output buffer, its position is moved
+     * @return Amount of decompressed bytes
+     * @throws DataFormatException If compressed data is not valid
+     */
+    @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.PreserveStackTrace"})
+    static int inflate(final Inflater inflater, final ByteBuffer output)
+        throws DataFormatException {
+        try {
+            return (int) Zlib.INFLATE.invokeExact(inflater, output);
+        } catch (final DataFormatException err) {
+            throw err;
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable err) {
+            throw new IllegalStateException("Failed to inflate", err);
+        }
+    }
+
+    /**
+     * Find public method.
+     * @param type Class
+     * @param name Method name
+     * @param sig Method type
+     * @return Method handle or null if it's not available
+     */
+    private static MethodHandle method(final Class<?> type, final String name,
+        final MethodType sig) {
+        MethodHandle res;
+        try {
+            res = MethodHandles.publicLookup().findVirtual(type, name, sig);
+        } catch (final ReflectiveOperationException err) {
+            res = null;
+        }
+        return res;
+    }
+}
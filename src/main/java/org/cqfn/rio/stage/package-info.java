@@ -0,0 +1,10 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+
+/**
+ * Processing stages of byte buffer streams.
+ * @since 1.0
+ */
+package org.cqfn.rio.stage;
@@ -0,0 +1,90 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+
+package org.cqfn.rio.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Readable channel of input stream.
+ * <p>
+ * Unlike {@link java.nio.channels.Channels#newChannel(InputStream)}, it reads
+ * heap buffers directly into their backing arrays, and reads direct buffers
+ * with a single copy through one scratch array, which is reused by the channel
+ * and fits the whole buffer, so reads are not split into small chunks.
+ * </p>
+ * @since 1.0
+ */
+final class InputStreamChannel implements ReadableByteChannel {
+
+    /**
+     * Input stream.
+     */
+    private final InputStream src;
+
+    /**
+     * Scratch array for direct buffers.
+     */
+    private byte[] scratch;
+
+    /**
+     * Open flag.
+     */
+    private volatile boolean open;
+
+    /**
+     * New channel.
+     * @param src Input stream
+     */
+    InputStreamChannel(final InputStream src) {
+        this.src = src;
+        this.scratch = new byte[0];
+        this.open = true;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        if (!this.open) {
+            throw new ClosedChannelException();
+        }
+        final int len = dst.remaining();
+        final int res;
+        if (len == 0) {
+            res = 0;
+        } else if (dst.hasArray()) {
+            res = this.src.read(dst.array(), dst.arrayOffset() + dst.position(), len);
+            if (res > 0) {
+                ((Buffer) dst).position(dst.position() + res);
+            }
+        } else {
+            if (this.scratch.length < len) {
+                this.scratch = new byte[len];
+            }
+            res = this.src.read(this.scratch, 0, len);
+            if (res > 0) {
+                dst.put(this.scratch, 0, res);
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.open) {
+            this.open = false;
+            this.src.close();
+        }
+    }
+}
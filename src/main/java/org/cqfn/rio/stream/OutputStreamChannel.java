@@ -0,0 +1,91 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+
+package org.cqfn.rio.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writable channel of output stream.
+ * <p>
+ * Unlike {@link java.nio.channels.Channels#newChannel(OutputStream)}, it writes
+ * heap buffers directly from their backing arrays, and copies direct buffers
+ * through one scratch array, which is reused by the channel.
+ * </p>
+ * @since 1.0
+ */
+final class OutputStreamChannel implements WritableByteChannel {
+
+    /**
+     * Max size of scratch array.
+     */
+    private static final int SCRATCH_MAX = 64 * 1024;
+
+    /**
+     * Output stream.
+     */
+    private final OutputStream out;
+
+    /**
+     * Scratch array for direct buffers.
+     */
+    private byte[] scratch;
+
+    /**
+     * Open flag.
+     */
+    private volatile boolean open;
+
+    /**
+     * New channel.
+     * @param out Output stream
+     */
+    OutputStreamChannel(final OutputStream out) {
+        this.out = out;
+        this.scratch = new byte[0];
+        this.open = true;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        if (!this.open) {
+            throw new ClosedChannelException();
+        }
+        final int len = src.remaining();
+        if (src.hasArray()) {
+            this.out.write(src.array(), src.arrayOffset() + src.position(), len);
+            ((Buffer) src).position(src.limit());
+        } else {
+            final int size = Math.min(len, OutputStreamChannel.SCRATCH_MAX);
+            if (this.scratch.length < size) {
+                this.scratch = new byte[size];
+            }
+            while (src.hasRemaining()) {
+                final int chunk = Math.min(src.remaining(), this.scratch.length);
+                src.get(this.scratch, 0, chunk);
+                this.out.write(this.scratch, 0, chunk);
+            }
+        }
+        return len;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.open) {
+            this.open = false;
+            this.out.close();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+
+package org.cqfn.rio.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.jctools.queues.SpscArrayQueue;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Blocking {@link InputStream} view of publisher of byte buffers.
+ * <p>
+ * It subscribes to the publisher on first read, and keeps a bounded ring of
+ * {@code prefetch} buffers: it requests {@code prefetch} buffers at start
+ * and requests more when three quarters of them were consumed. Read methods copy
+ * bytes straight from queued buffers into destination array, and block the reader
+ * only if no buffer is available. This stream is not thread safe, it should be
+ * read by one thread at a time.
+ * </p>
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class PublisherInputStream extends InputStream {
+
+    /**
+     * Default prefetch.
+     */
+    private static final int PREFETCH = 8;
+
+    /**
+     * Source publisher.
+     */
+    private final Publisher<ByteBuffer> src;
+
+    /**
+     * Prefetch amount.
+     */
+    private final int prefetch;
+
+    /**
+     * Amount of consumed buffers to request more.
+     */
+    private final int limit;
+
+    /**
+     * Ring of received buffers.
+     */
+    private final Queue<ByteBuffer> ring;
+
+    /**
+     * Buffered bytes.
+     */
+    private final AtomicLong buffered;
+
+    /**
+     * Subscribed flag.
+     */
+    private final AtomicBoolean subscribed;
+
+    /**
+     * Subscription.
+     */
+    private volatile Subscription sub;
+
+    /**
+     * Thread waiting for next buffer.
+     */
+    private volatile Thread waiter;
+
+    /**
+     * Publisher terminated.
+     */
+    private volatile boolean done;
+
+    /**
+     * Publisher error.
+     */
+    private volatile Throwable error;
+
+    /**
+     * Stream closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Current buffer.
+     */
+    private ByteBuffer current;
+
+    /**
+     * Consumed buffers since last request.
+     */
+    private int consumed;
+
+    /**
+     * Input stream of publisher with default prefetch.
+     * @param src Publisher
+     */
+    public PublisherInputStream(final Publisher<ByteBuffer> src) {
+        this(src, PublisherInputStream.PREFETCH);
+    }
+
+    /**
+     * Input stream of publisher.
+     * @param src Publisher
+     * @param prefetch Amount of buffers to prefetch
+     */
+    public PublisherInputStream(final Publisher<ByteBuffer> src, final int prefetch) {
+        super();
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch should be greater than 0");
+        }
+        this.src = src;
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+        this.ring = new SpscArrayQueue<>(prefetch);
+        this.buffered = new AtomicLong();
+        this.subscribed = new AtomicBoolean();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final ByteBuffer buf = this.next(true);
+        final int res;
+        if (buf == null) {
+            res = -1;
+        } else {
+            res = buf.get() & 0xFF;
+            this.buffered.decrementAndGet();
+        }
+        return res;
+    }
+
+    @Override
+    public int read(final byte[] dst, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > dst.length - off) {
+            throw new IndexOutOfBoundsException(
+                String.format("Range [%d, %d + %d) out of bounds of %d", off, off, len, dst.length)
+            );
+        }
+        int res;
+        if (len == 0) {
+            res = 0;
+        } else {
+            ByteBuffer buf = this.next(true);
+            if (buf == null) {
+                res = -1;
+            } else {
+                res = 0;
+                while (buf != null && res < len) {
+                    final int size = Math.min(buf.remaining(), len - res);
+                    buf.get(dst, off + res, size);
+                    this.buffered.addAndGet(-size);
+                    res += size;
+                    if (res < len) {
+                        buf = this.partial();
+                    }
+                }
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public int available() throws IOException {
+        this.ensureOpen();
+        return (int) Math.min(Integer.MAX_VALUE, this.buffered.get());
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            final Subscription subscription = this.sub;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            this.ring.clear();
+            this.current = null;
+            this.buffered.set(0L);
+            this.signal();
+        }
+    }
+
+    /**
+     * Next buffer with remaining bytes.
+     * @param block Wait for next buffer if nothing is buffered
+     * @return Buffer or null if publisher is completed, or nothing is buffered
+     *  in non-blocking mode
+     * @throws IOException If publisher failed or stream is closed
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private ByteBuffer next(final boolean block) throws IOException {
+        this.ensureOpen();
+        if (this.subscribed.compareAndSet(false, true)) {
+            this.src.subscribe(new RingSubscriber());
+        }
+        ByteBuffer res = this.current;
+        while (res == null || !res.hasRemaining()) {
+            if (res != null) {
+                this.release();
+                this.current = null;
+            }
+            res = this.ring.poll();
+            if (res == null) {
+                final boolean terminated = this.done;
+                res = this.ring.poll();
+                if (res == null) {
+                    if (terminated) {
+                        this.raise();
+                        break;
+                    }
+                    if (!block) {
+                        break;
+                    }
+                    this.await();
+                }
+            }
+        }
+        this.current = res;
+        return res;
+    }
+
+    /**
+     * Next buffer after some bytes were read already. Error is not thrown,
+     * so the read returns bytes it copied, and the error is thrown on next read.
+     * @return Buffer or null if nothing is buffered, or stream is terminated
+     */
+    private ByteBuffer partial() {
+        ByteBuffer res;
+        try {
+            res = this.next(false);
+        } catch (final IOException ignored) {
+            res = null;
+        }
+        return res;
+    }
+
+    /**
+     * Release consumed buffer and request more if needed.
+     */
+    private void release() {
+        ++this.consumed;
+        if (this.consumed == this.limit) {
+            this.sub.request(this.consumed);
+            this.consumed = 0;
+        }
+    }
+
+    /**
+     * Wait for a signal from publisher.
+     * @throws IOException If interrupted or stream was closed
+     */
+    private void await() throws IOException {
+        this.waiter = Thread.currentThread();
+        if (this.ring.isEmpty() && !this.done && !this.closed) {
+            LockSupport.park(this);
+        }
+        this.waiter = null;
+        if (Thread.interrupted()) {
+            throw new InterruptedIOException("Interrupted while waiting for data");
+        }
+        this.ensureOpen();
+    }
+
+    /**
+     * Throw publisher error if any.
+     * @throws IOException Publisher error
+     */
+    private void raise() throws IOException {
+        final Throwable err = this.error;
+        if (err instanceof IOException) {
+            throw new IOException(err.getMessage(), err);
+        } else if (err != null) {
+            throw new IOException("Publisher failed", err);
+        }
+    }
+
+    /**
+     * Check that stream is not closed.
+     * @throws IOException If closed
+     */
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Wake up waiting reader.
+     */
+    private void signal() {
+        final Thread thread = this.waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Subscriber which puts buffers into the ring.
+     * @since 1.0
+     */
+    private final class RingSubscriber implements Subscriber<ByteBuffer> {
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            final PublisherInputStream stream = PublisherInputStream.this;
+            if (stream.sub != null || stream.closed) {
+                subscription.cancel();
+            } else {
+                stream.sub = subscription;
+                subscription.request(stream.prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(final ByteBuffer buf) {
+            final PublisherInputStream stream = PublisherInputStream.this;
+            final int size = buf.remaining();
+            stream.buffered.addAndGet(size);
+            if (!stream.ring.offer(buf)) {
+                stream.buffered.addAndGet(-size);
+                stream.sub.cancel();
+                this.onError(
+                    new IllegalStateException("Publisher emitted more buffers than requested")
+                );
+            }
+            stream.signal();
+        }
+
+        @Override
+        public void onError(final Throwable err) {
+            final PublisherInputStream stream = PublisherInputStream.this;
+            stream.error = err;
+            stream.done = true;
+            stream.signal();
+        }
+
+        @Override
+        public void onComplete() {
+            final PublisherInputStream stream = PublisherInputStream.this;
+            stream.done = true;
+            stream.signal();
+        }
+    }
+}
@@ -5,15 +5,20 @@
 
 package org.cqfn.rio.stream;
 
+import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import org.cqfn.rio.Buffers;
 import org.cqfn.rio.channel.ReadableChannel;
 import org.reactivestreams.Publisher;
 
 /**
  * Reactive read methods for {@link InputStream}.
+ * <p>
+ * File input stream is read through its file channel, other streams are read
+ * directly into arrays of heap buffers, see {@link Buffers.Heap}.
+ * </p>
  * @since 0.2
  */
 public final class ReactiveInputStream {
@@ -31,12 +36,34 @@ public final class ReactiveInputStream {
         this.src = src;
     }
 
+    /**
+     * Read input stream as a publisher of heap byte buffers.
+     * @return Publisher of byte buffers
+     */
+    public Publisher<ByteBuffer> read() {
+        return this.read(Buffers.Heap.K8);
+    }
+
     /**
      * Read input stream as a publisher of byte buffers.
      * @param buf Buffer allocation strategy
      * @return Publisher of bute buffers
      */
     public Publisher<ByteBuffer> read(final Buffers buf) {
-        return new ReadableChannel(() -> Channels.newChannel(this.src)).read(buf);
+        return new ReadableChannel(this::channel).read(buf);
+    }
+
+    /**
+     * Channel of the input stream.
+     * @return Readable channel
+     */
+    private ReadableByteChannel channel() {
+        final ReadableByteChannel res;
+        if (this.src instanceof FileInputStream) {
+            res = ((FileInputStream) this.src).getChannel();
+        } else {
+            res = new InputStreamChannel(this.src);
+        }
+        return res;
     }
 }
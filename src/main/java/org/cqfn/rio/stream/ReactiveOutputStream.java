@@ -5,9 +5,10 @@
 
 package org.cqfn.rio.stream;
 
+import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.CompletionStage;
 import org.cqfn.rio.WriteGreed;
 import org.cqfn.rio.channel.WritableChannel;
@@ -15,6 +16,11 @@ import org.reactivestreams.Publisher;
 
 /**
  * Reactive write methods for {@link OutputStream}.
+ * <p>
+ * File output stream is written through its file channel, other streams
+ * are written directly from arrays of heap buffers, and direct buffers are copied
+ * through one scratch array reused by the stream.
+ * </p>
  * @since 0.2
  */
 public final class ReactiveOutputStream {
@@ -32,6 +38,15 @@ public final class ReactiveOutputStream {
         this.src = src;
     }
 
+    /**
+     * Write data reactively from publisher into output stream.
+     * @param data Publisher to write
+     * @return Future
+     */
+    public CompletionStage<Void> write(final Publisher<ByteBuffer> data) {
+        return this.write(data, WriteGreed.SYSTEM.adaptive());
+    }
+
     /**
      * Write data reactively from publisher into output stream.
      * @param data Publisher to write
@@ -39,7 +54,20 @@ public final class ReactiveOutputStream {
      * @return Future
      */
     public CompletionStage<Void> write(final Publisher<ByteBuffer> data, final WriteGreed greed) {
-        return new WritableChannel(() -> Channels.newChannel(this.src))
-            .write(data, greed);
+        return new WritableChannel(this::channel).write(data, greed);
+    }
+
+    /**
+     * Channel of the output stream.
+     * @return Writable channel
+     */
+    private WritableByteChannel channel() {
+        final WritableByteChannel res;
+        if (this.src instanceof FileOutputStream) {
+            res = ((FileOutputStream) this.src).getChannel();
+        } else {
+            res = new OutputStreamChannel(this.src);
+        }
+        return res;
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+
+package org.cqfn.rio.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.WriteGreed;
+import org.cqfn.rio.channel.ReadableChannel;
+import org.cqfn.rio.channel.WritableChannel;
+import org.reactivestreams.Publisher;
+
+/**
+ * Reactive streams of {@link Process}.
+ * <p>
+ * It writes publisher into process standard input with backpressure of
+ * {@link WriteGreed}, and reads process standard output as a publisher.
+ * Both directions are served by executor threads only while data is transferred,
+ * instead of dedicated pump threads per process. Process pipes are blocking,
+ * so default executor is an unbounded pool of daemon threads: a stalled
+ * stdin write should never hold the thread needed to drain stdout.
+ * </p>
+ * <p>
+ * Process streams are accessed through channels which copy directly from
+ * buffer arrays. Standard input is written through the stream of the process,
+ * so data buffered by it is never reordered. To skip the JVM completely,
+ * redirect a file with {@link ProcessBuilder#redirectInput(java.io.File)}.
+ * </p>
+ * @since 1.0
+ */
+public final class ReactiveProcess {
+
+    /**
+     * Process.
+     */
+    private final Process proc;
+
+    /**
+     * IO executor.
+     */
+    private final ExecutorService exec;
+
+    /**
+     * Reactive streams of process with default executor.
+     * @param proc Process
+     */
+    public ReactiveProcess(final Process proc) {
+        this(proc, Pool.EXEC);
+    }
+
+    /**
+     * Reactive streams of process.
+     * @param proc Process
+     * @param exec IO executor, it should not be bounded by one thread,
+     *  since stdin and stdout are transferred concurrently with blocking calls
+     */
+    public ReactiveProcess(final Process proc, final ExecutorService exec) {
+        this.proc = proc;
+        this.exec = exec;
+    }
+
+    /**
+     * Write data into process standard input and close it when completed.
+     * @param data Publisher to write
+     * @return Future
+     */
+    public CompletionStage<Void> write(final Publisher<ByteBuffer> data) {
+        return this.write(data, WriteGreed.SYSTEM.adaptive());
+    }
+
+    /**
+     * Write data into process standard input and close it when completed.
+     * @param data Publisher to write
+     * @param greed Of write consumer
+     * @return Future
+     */
+    public CompletionStage<Void> write(final Publisher<ByteBuffer> data, final WriteGreed greed) {
+        return new WritableChannel(this::stdin, this.exec).write(data, greed);
+    }
+
+    /**
+     * Transfer file into process standard input and close it when completed.
+     * @param file File to transfer
+     * @return Future
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public CompletionStage<Void> write(final Path file) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        this.exec.execute(
+            () -> {
+                try (
+                    FileChannel src = FileChannel.open(file, StandardOpenOption.READ);
+                    WritableByteChannel dst = this.stdin()
+                ) {
+                    final long size = src.size();
+                    long pos = 0;
+                    while (pos < size) {
+                        pos += src.transferTo(pos, size - pos, dst);
+                    }
+                    future.complete(null);
+                    // @checkstyle IllegalCatchCheck (1 line)
+                } catch (final IOException | RuntimeException err) {
+                    future.completeExceptionally(err);
+                }
+            }
+        );
+        return future;
+    }
+
+    /**
+     * Read process standard output with heap buffers of 8 KiB.
+     * @return Publisher of byte buffers
+     */
+    public Publisher<ByteBuffer> read() {
+        return this.read(Buffers.Heap.K8);
+    }
+
+    /**
+     * Read process standard output.
+     * @param buf Buffer allocation strategy
+     * @return Publisher of byte buffers
+     */
+    public Publisher<ByteBuffer> read(final Buffers buf) {
+        return new ReadableChannel(this::stdout, this.exec).read(buf);
+    }
+
+    /**
+     * Channel of process standard input.
+     * @return Writable channel
+     */
+    private WritableByteChannel stdin() {
+        return new OutputStreamChannel(this.proc.getOutputStream());
+    }
+
+    /**
+     * Channel of process standard output.
+     * @return Readable channel
+     */
+    private ReadableByteChannel stdout() {
+        return new InputStreamChannel(this.proc.getInputStream());
+    }
+
+    /**
+     * Default executor of process streams, it's created on first usage.
+     * @since 1.0
+     */
+    private static final class Pool {
+
+        /**
+         * Cached pool of daemon threads.
+         */
+        private static final ExecutorService EXEC = Executors.newCachedThreadPool(
+            task -> {
+                final Thread thread = new Thread(task, "rio-process");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+        /**
+         * Utility class.
+         */
+        private Pool() {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link MemoryBudget}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class MemoryBudgetTest {
+
+    @Test
+    void givesFairShareWhenExhausted() {
+        final MemoryBudget budget = new MemoryBudget(4 * 1024);
+        final MemoryBudget.Share first = budget.share();
+        final MemoryBudget.Share second = budget.share();
+        final MemoryBudget.Share third = budget.share();
+        first.acquire(4 * 1024);
+        second.acquire(1024);
+        MatcherAssert.assertThat(
+            new long[]{first.room(), second.room(), third.room(), budget.streams()},
+            Matchers.equalTo(new long[]{0L, 1024L, 1365L, 2L})
+        );
+    }
+
+    @Test
+    void wakesWaitersOnRelease() {
+        final MemoryBudget budget = new MemoryBudget(1024);
+        final MemoryBudget.Share first = budget.share();
+        final MemoryBudget.Share second = budget.share();
+        final AtomicInteger woken = new AtomicInteger();
+        first.acquire(1024);
+        second.acquire(1024);
+        second.await(1024, woken::incrementAndGet);
+        final int waiting = woken.get();
+        first.release(1024);
+        second.release(1024);
+        MatcherAssert.assertThat(
+            new long[]{waiting, woken.get(), budget.used(), budget.streams()},
+            Matchers.equalTo(new long[]{0L, 1L, 0L, 0L})
+        );
+    }
+
+    @Test
+    void alwaysFitsWhenNotUsed() {
+        MatcherAssert.assertThat(
+            new MemoryBudget(1024).share().fits(16 * 1024),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void wakesOnlyWaitersWhichFit() {
+        final MemoryBudget budget = new MemoryBudget(2048);
+        final MemoryBudget.Share holder = budget.share();
+        final AtomicInteger woken = new AtomicInteger();
+        holder.acquire(2048);
+        for (int idx = 0; idx < 3; ++idx) {
+            budget.share().await(2048, woken::incrementAndGet);
+        }
+        holder.release(2048);
+        final int first = woken.get();
+        holder.acquire(1024);
+        holder.release(1024);
+        MatcherAssert.assertThat(
+            new int[]{first, woken.get()},
+            Matchers.equalTo(new int[]{1, 2})
+        );
+    }
+
+    @Test
+    void runsFittingWaiterOnce() {
+        final MemoryBudget budget = new MemoryBudget(1024);
+        final MemoryBudget.Share share = budget.share();
+        final AtomicInteger woken = new AtomicInteger();
+        share.await(1024, woken::incrementAndGet);
+        share.acquire(1024);
+        share.release(1024);
+        MatcherAssert.assertThat(woken.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    void doesNotTrackUnlimitedBudget() {
+        final MemoryBudget.Share share = MemoryBudget.UNLIMITED.share();
+        share.acquire(1024);
+        MatcherAssert.assertThat(
+            new long[]{share.used(), MemoryBudget.UNLIMITED.used(), share.room()},
+            Matchers.equalTo(new long[]{0L, 0L, Long.MAX_VALUE})
+        );
+    }
+}
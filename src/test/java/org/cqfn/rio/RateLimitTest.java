@@ -0,0 +1,47 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio;
+
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link RateLimit}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class RateLimitTest {
+
+    @Test
+    void doesNotDelayBurst() {
+        final RateLimit limit = new RateLimit(1024, 1024);
+        limit.consume(1024);
+        MatcherAssert.assertThat(limit.delay(), Matchers.equalTo(0L));
+    }
+
+    @Test
+    void delaysOverBurst() {
+        final RateLimit limit = new RateLimit(1024, 1024);
+        limit.consume(1024);
+        limit.consume(512);
+        MatcherAssert.assertThat(
+            limit.delay(),
+            Matchers.allOf(
+                Matchers.greaterThan(TimeUnit.MILLISECONDS.toNanos(400)),
+                Matchers.lessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500))
+            )
+        );
+    }
+
+    @Test
+    void neverDelaysUnlimited() {
+        RateLimit.UNLIMITED.consume(Long.MAX_VALUE);
+        MatcherAssert.assertThat(RateLimit.UNLIMITED.delay(), Matchers.equalTo(0L));
+    }
+}
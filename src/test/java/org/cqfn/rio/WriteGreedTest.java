@@ -9,6 +9,8 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Subscription;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Test case for {@link WriteGreed}.
  *
@@ -52,4 +54,118 @@ public final class WriteGreedTest {
         //     )
         // );
     }
+
+    @Test
+    void adaptiveGreedIncreasesAmountForFastConsumer() {
+        final AdaptiveGreed greed = new AdaptiveGreed(3, 1);
+        WriteGreedTest.consume(greed, 100, true);
+        MatcherAssert.assertThat(greed.amount(), Matchers.greaterThan(3L));
+    }
+
+    @Test
+    void adaptiveGreedRespectsMaxAmount() {
+        final AdaptiveGreed greed = new AdaptiveGreed(
+            3, 1, new GreedPolicy.Bounded(1, 16)
+        );
+        WriteGreedTest.consume(greed, 1000, true);
+        MatcherAssert.assertThat(greed.amount(), Matchers.equalTo(16L));
+    }
+
+    @Test
+    void adaptiveGreedTargetsBytes() {
+        final AdaptiveGreed greed = new AdaptiveGreed(
+            3, 1, new GreedPolicy.Bytes(8 * 1024)
+        );
+        WriteGreedTest.consume(greed, 1000, true);
+        MatcherAssert.assertThat(greed.amount(), Matchers.equalTo(8L));
+    }
+
+    @Test
+    void adaptiveGreedReducesAmountOnLatency() {
+        final AdaptiveGreed greed = new AdaptiveGreed(8, 1, new GreedPolicy.Aimd(1L));
+        WriteGreedTest.consume(greed, 7, false);
+        MatcherAssert.assertThat(
+            "amount is halved",
+            new long[]{greed.amount(), greed.queue(), greed.bytes()},
+            Matchers.equalTo(new long[]{4L, 7L, 7L * 1024})
+        );
+    }
+
+    @Test
+    void budgetGreedWithholdsDemandOverBudget() {
+        final AtomicLong requested = new AtomicLong();
+        final Subscription sub = WriteGreedTest.counting(requested);
+        final BudgetGreed greed = new BudgetGreed(8 * 1024);
+        greed.init(sub);
+        for (int pos = 0; pos < 8; ++pos) {
+            greed.received(sub, 1024L);
+        }
+        final long full = requested.get();
+        for (int pos = 0; pos < 4; ++pos) {
+            greed.processed(sub, 1024L);
+        }
+        MatcherAssert.assertThat(
+            new long[]{full, requested.get(), greed.queued()},
+            Matchers.equalTo(new long[]{8L, 12L, 4L * 1024})
+        );
+    }
+
+    @Test
+    void budgetGreedTakesFairShareOfGlobalBudget() {
+        final MemoryBudget global = new MemoryBudget(4 * 1024);
+        final AtomicLong first = new AtomicLong();
+        final AtomicLong second = new AtomicLong();
+        final Subscription fsub = WriteGreedTest.counting(first);
+        final Subscription ssub = WriteGreedTest.counting(second);
+        final BudgetGreed fgreed = new BudgetGreed(1024 * 1024, global);
+        final BudgetGreed sgreed = new BudgetGreed(1024 * 1024, global);
+        fgreed.init(fsub);
+        for (int pos = 0; pos < 4; ++pos) {
+            fgreed.received(fsub, 1024L);
+        }
+        final long alone = first.get();
+        sgreed.init(ssub);
+        sgreed.received(ssub, 1024L);
+        fgreed.processed(fsub, 1024L);
+        MatcherAssert.assertThat(
+            new long[]{first.get() - alone, second.get(), global.used(), global.streams()},
+            Matchers.equalTo(new long[]{0L, 2L, 4L * 1024, 2L})
+        );
+    }
+
+    /**
+     * Subscription which counts requested items.
+     * @param requested Counter
+     * @return Subscription
+     */
+    private static Subscription counting(final AtomicLong requested) {
+        return new Subscription() {
+            @Override
+            public void request(final long items) {
+                requested.addAndGet(items);
+            }
+
+            @Override
+            public void cancel() {
+                // nothing
+            }
+        };
+    }
+
+    /**
+     * Receive chunks of 1 KiB.
+     * @param greed Greed
+     * @param count Amount of chunks
+     * @param process Process chunks immediately
+     */
+    private static void consume(final WriteGreed greed, final int count,
+        final boolean process) {
+        greed.init(WriteGreedTest.SUB_DUMMY);
+        for (int pos = 0; pos < count; ++pos) {
+            greed.received(WriteGreedTest.SUB_DUMMY, 1024L);
+            if (process) {
+                greed.processed(WriteGreedTest.SUB_DUMMY, 1024L);
+            }
+        }
+    }
 }
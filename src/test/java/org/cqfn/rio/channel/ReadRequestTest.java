@@ -0,0 +1,55 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.channel;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.IoExecutor;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.MemoryBudget;
+import org.cqfn.rio.RateLimit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ReadRequest}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class ReadRequestTest {
+
+    @Test
+    void readsDemandGreaterThanBudget() {
+        final MemoryBudget budget = new MemoryBudget(4 * 1024);
+        final TestSubscriber<ByteBuffer> first = ReadRequestTest.read(budget).test(1000L);
+        final TestSubscriber<ByteBuffer> second = ReadRequestTest.read(budget).test(1000L);
+        first.awaitDone(1L, TimeUnit.MINUTES).assertComplete().assertValueCount(64);
+        second.awaitDone(1L, TimeUnit.MINUTES).assertComplete().assertValueCount(64);
+        MatcherAssert.assertThat(budget.used(), Matchers.equalTo(0L));
+    }
+
+    /**
+     * Read 64 KiB in buffers of 1 KiB.
+     * @param budget Memory budget
+     * @return Flowable of buffers
+     */
+    private static Flowable<ByteBuffer> read(final MemoryBudget budget) {
+        return Flowable.fromPublisher(
+            new ReadableChannelPublisher(
+                () -> Channels.newChannel(new ByteArrayInputStream(new byte[64 * 1024])),
+                Buffers.Standard.K1, IoExecutor.shared(), IoMetrics.NOOP,
+                RateLimit.UNLIMITED, budget
+            )
+        );
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.channel;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import java.io.ByteArrayInputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.WriteGreed;
+import org.cqfn.rio.file.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for non-blocking socket channels.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class SocketChannelTest {
+
+    @Test
+    void transfersDataOverNonBlockingSockets(@TempDir final Path tmp) throws Exception {
+        final byte[] data = new byte[4 * 1024 * 1024];
+        new Random(42).nextBytes(data);
+        final Path target = tmp.resolve("received.bin");
+        final ExecutorService exec = Executors.newCachedThreadPool();
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            final SocketChannel client = SocketChannel.open(server.getLocalAddress());
+            final SocketChannel accepted = server.accept();
+            client.configureBlocking(false);
+            accepted.configureBlocking(false);
+            final CompletionStage<Void> sent = new WritableChannel(
+                () -> client, exec, IoMetrics.NOOP
+            ).write(
+                new ReadableChannel(
+                    () -> Channels.newChannel(new ByteArrayInputStream(data)),
+                    exec
+                ).read(Buffers.Standard.K16),
+                WriteGreed.SYSTEM
+            );
+            final CompletionStage<Void> received = new File(target, exec).write(
+                new ReadableChannel(() -> accepted, exec).read(Buffers.Standard.K4)
+            );
+            sent.toCompletableFuture().get(1, TimeUnit.MINUTES);
+            received.toCompletableFuture().get(1, TimeUnit.MINUTES);
+        } finally {
+            exec.shutdown();
+        }
+        MatcherAssert.assertThat(
+            Files.readAllBytes(target),
+            Matchers.equalTo(data)
+        );
+    }
+
+    @Test
+    void closesIdleSocketOnCancel() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (SocketChannel client = SocketChannel.open(server.getLocalAddress())) {
+                final SocketChannel accepted = server.accept();
+                accepted.configureBlocking(false);
+                final TestSubscriber<ByteBuffer> sub = Flowable.fromPublisher(
+                    new ReadableChannel(() -> accepted).read(Buffers.Standard.K1)
+                ).test(1L);
+                SocketChannelTest.await(accepted::isRegistered);
+                sub.cancel();
+                SocketChannelTest.await(() -> !accepted.isOpen() && !accepted.isRegistered());
+                MatcherAssert.assertThat(
+                    client.read(ByteBuffer.allocate(1)), Matchers.equalTo(-1)
+                );
+            }
+        }
+    }
+
+    /**
+     * Wait for condition up to one minute.
+     * @param condition Condition
+     */
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1L);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition is not met in one minute");
+            }
+            Thread.yield();
+        }
+    }
+}
@@ -5,30 +5,53 @@
 package org.cqfn.rio.file;
 
 import io.reactivex.Flowable;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.cqfn.rio.BudgetGreed;
 import org.cqfn.rio.Buffers;
+import org.cqfn.rio.InMemoryMetrics;
+import org.cqfn.rio.IoExecutor;
+import org.cqfn.rio.IoMetrics;
+import org.cqfn.rio.MemoryBudget;
+import org.cqfn.rio.RateLimit;
 import org.cqfn.rio.WriteGreed;
 import org.cqfn.rio.ext.BufferSource;
 import org.cqfn.rio.ext.BufferSourceExtension;
 import org.cqfn.rio.ext.TestResource;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.reactivestreams.Publisher;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Test case for {@link File}.
@@ -66,6 +89,26 @@ public final class FileTest {
         );
     }
 
+    @RepeatedTest(100)
+    void readsContentWithReadAhead(@TempDir final Path tmp) throws Exception {
+        final Path file = tmp.resolve("test");
+        new TestResource("file.bin").copy(file);
+        MatcherAssert.assertThat(
+            Flowable.fromPublisher(
+                new File(file).content(Buffers.Standard.K1, new ReadAhead(2048))
+            ).reduceWith(
+                FileTest::sha256,
+                (digest, buf) -> {
+                    digest.update(buf);
+                    return digest;
+                }
+            ).map(MessageDigest::digest).map(FileTest::bytesToHex).blockingGet(),
+            Matchers.equalTo(
+                "064EA88A18650615410970219992D54DA5CEFAE194A23FCBE3C3AF484CB3F501"
+            )
+        );
+    }
+
     @RepeatedTest(1000)
     void writeFile(@TempDir final Path tmp,
         @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
@@ -86,6 +129,255 @@ public final class FileTest {
         ).toCompletableFuture().get();
     }
 
+    @RepeatedTest(10)
+    void writeFileWithDurability(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        new File(out).write(
+            source, new Durability(false, 4096, 1000)
+        ).toCompletableFuture().get();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(out))),
+            Matchers.equalTo("84FF92691F909A05B224E1C56ABB4864F01B4F8E3C854E4BB4C7BAF1D3F6D652")
+        );
+    }
+
+    @RepeatedTest(10)
+    void writeFileWithBudgetGreed(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        final MemoryBudget global = new MemoryBudget(2048);
+        final ExecutorService exec = Executors.newCachedThreadPool();
+        new File(out, exec).write(source, new BudgetGreed(4096, global))
+            .toCompletableFuture().get();
+        exec.shutdown();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(out))),
+            Matchers.equalTo("84FF92691F909A05B224E1C56ABB4864F01B4F8E3C854E4BB4C7BAF1D3F6D652")
+        );
+        MatcherAssert.assertThat(global.used(), Matchers.equalTo(0L));
+    }
+
+    @Test
+    void writeExpectedSizedFile(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        new File(out).write(source, new ExpectedSize(1024 * 1024)).toCompletableFuture().get();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(out))),
+            Matchers.equalTo("84FF92691F909A05B224E1C56ABB4864F01B4F8E3C854E4BB4C7BAF1D3F6D652")
+        );
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void writeExpectedSizedFileInDirectMode(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        new File(out).write(
+            source, FileOption.DIRECT, new ExpectedSize(1024 * 1024 + 1)
+        ).toCompletableFuture().get();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(out))),
+            Matchers.equalTo("84FF92691F909A05B224E1C56ABB4864F01B4F8E3C854E4BB4C7BAF1D3F6D652")
+        );
+    }
+
+    @Test
+    void rejectsExpectedSizeWithAppend(@TempDir final Path tmp) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        Files.write(out, new byte[]{1, 2, 3});
+        final CompletableFuture<Void> future = new File(out).write(
+            Flowable.just(ByteBuffer.wrap(new byte[]{4, 5})),
+            StandardOpenOption.APPEND, new ExpectedSize(1024)
+        ).toCompletableFuture();
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(ExecutionException.class, future::get).getCause(),
+            Matchers.instanceOf(IOException.class)
+        );
+        MatcherAssert.assertThat(Files.readAllBytes(out), Matchers.equalTo(new byte[]{1, 2, 3}));
+    }
+
+    @RepeatedTest(10)
+    void writeFileAtomically(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        new File(out).writeAtomically(source, Durability.DATA).toCompletableFuture().get();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(out))),
+            Matchers.equalTo("84FF92691F909A05B224E1C56ABB4864F01B4F8E3C854E4BB4C7BAF1D3F6D652")
+        );
+        try (Stream<Path> files = Files.list(tmp)) {
+            MatcherAssert.assertThat(files.count(), Matchers.equalTo(1L));
+        }
+    }
+
+    @Test
+    void removesTemporaryFileOnAtomicWriteError(@TempDir final Path tmp) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        final CompletableFuture<Void> future = new File(out).writeAtomically(
+            Flowable.concat(
+                Flowable.just(ByteBuffer.wrap(new byte[]{1, 2, 3})),
+                Flowable.error(new IllegalStateException("failed"))
+            )
+        ).toCompletableFuture();
+        Assertions.assertThrows(ExecutionException.class, future::get);
+        try (Stream<Path> files = Files.list(tmp)) {
+            MatcherAssert.assertThat(files.count(), Matchers.equalTo(0L));
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void removesTemporaryFileOnAtomicWriteCancel(@TempDir final Path tmp) throws Exception {
+        final CountDownLatch requested = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final CompletableFuture<Void> future = new File(tmp.resolve("out.bin")).writeAtomically(
+            Flowable.<ByteBuffer>never()
+                .doOnRequest(count -> requested.countDown())
+                .doOnCancel(cancelled::countDown)
+        ).toCompletableFuture();
+        requested.await();
+        final long created;
+        try (Stream<Path> files = Files.list(tmp)) {
+            created = files.count();
+        }
+        future.cancel(true);
+        cancelled.await();
+        try (Stream<Path> files = Files.list(tmp)) {
+            MatcherAssert.assertThat(
+                new long[]{created, files.count()}, Matchers.equalTo(new long[]{1L, 0L})
+            );
+        }
+    }
+
+    @Test
+    void countsIoMetrics(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        new TestResource("file.bin").copy(src);
+        final ExecutorService exec = Executors.newCachedThreadPool();
+        final InMemoryMetrics total = new InMemoryMetrics();
+        final InMemoryMetrics read = new InMemoryMetrics(total);
+        new File(tmp.resolve("dst.bin"), exec, new InMemoryMetrics(total)).write(
+            new File(src, exec, read).content(Buffers.Standard.K1)
+        ).toCompletableFuture().get();
+        exec.shutdown();
+        MatcherAssert.assertThat(
+            "read metrics",
+            new long[]{read.getBytesRead(), read.getBytesWritten(), read.getBuffersAllocated()},
+            Matchers.equalTo(new long[]{5125L, 0L, read.getReadCalls()})
+        );
+        MatcherAssert.assertThat(
+            "total metrics",
+            new long[]{total.getBytesRead(), total.getBytesWritten()},
+            Matchers.equalTo(new long[]{5125L, 5125L})
+        );
+    }
+
+    @Test
+    void countsFileSyncMetrics(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final ExecutorService exec = Executors.newCachedThreadPool();
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        new File(tmp.resolve("out.bin"), exec, metrics)
+            .write(source, Durability.DATA).toCompletableFuture().get();
+        exec.shutdown();
+        MatcherAssert.assertThat(metrics.getSyncCalls(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(metrics.getSyncNanos(), Matchers.greaterThan(0L));
+    }
+
+    @Test
+    void recordsFlightRecorderEvents(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        new TestResource("file.bin").copy(src);
+        final Path dump = tmp.resolve("rio.jfr");
+        try (Recording rec = new Recording()) {
+            rec.enable("org.cqfn.rio.ChannelRead").withThreshold(Duration.ZERO);
+            rec.enable("org.cqfn.rio.ChannelWrite").withThreshold(Duration.ZERO);
+            rec.enable("org.cqfn.rio.Drain");
+            rec.enable("org.cqfn.rio.Subscription");
+            rec.start();
+            new File(tmp.resolve("dst.bin")).write(
+                new File(src).content(Buffers.Standard.K1)
+            ).toCompletableFuture().get();
+            rec.stop();
+            rec.dump(dump);
+        }
+        MatcherAssert.assertThat(
+            RecordingFile.readAllEvents(dump).stream()
+                .map(evt -> evt.getEventType().getName())
+                .collect(Collectors.toSet()),
+            Matchers.containsInAnyOrder(
+                "org.cqfn.rio.ChannelRead", "org.cqfn.rio.ChannelWrite",
+                "org.cqfn.rio.Drain", "org.cqfn.rio.Subscription"
+            )
+        );
+    }
+
+    @Test
+    void digestsChunksInParallel(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        new TestResource("file.bin").copy(src);
+        final byte[] data = Files.readAllBytes(src);
+        final byte[][] leaves = new byte[6][];
+        for (int idx = 0; idx < leaves.length; ++idx) {
+            leaves[idx] = FileTest.node(
+                (byte) 0,
+                Arrays.copyOfRange(data, idx * 1024, Math.min(data.length, (idx + 1) * 1024))
+            );
+        }
+        final TreeDigest digest = new File(src).digest(1024)
+            .toCompletableFuture().get(1, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            "chunk digests",
+            digest.chunks().toArray(new byte[0][]),
+            Matchers.equalTo(leaves)
+        );
+        MatcherAssert.assertThat(
+            "root digest",
+            digest.root(),
+            Matchers.equalTo(
+                FileTest.node(
+                    (byte) 1,
+                    FileTest.node(
+                        (byte) 1,
+                        FileTest.node((byte) 1, leaves[0], leaves[1]),
+                        FileTest.node((byte) 1, leaves[2], leaves[3])
+                    ),
+                    FileTest.node((byte) 1, leaves[4], leaves[5])
+                )
+            )
+        );
+    }
+
+    @Test
+    void digestsSingleChunkAndEmptyFile(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        new TestResource("file.bin").copy(src);
+        final Path empty = Files.createFile(tmp.resolve("empty.bin"));
+        MatcherAssert.assertThat(
+            new String[]{
+                new File(src).digest().toCompletableFuture().get(1, TimeUnit.MINUTES).hex(),
+                new File(empty).digest().toCompletableFuture().get(1, TimeUnit.MINUTES).hex(),
+            },
+            Matchers.arrayContaining(
+                FileTest.bytesToHex(FileTest.node((byte) 0, Files.readAllBytes(src)))
+                    .toLowerCase(Locale.US),
+                FileTest.bytesToHex(FileTest.node((byte) 0)).toLowerCase(Locale.US)
+            )
+        );
+    }
+
+    @Test
+    void failsDigestOfMissingFile(@TempDir final Path tmp) {
+        final ExecutionException err = Assertions.assertThrows(
+            ExecutionException.class,
+            () -> new File(tmp.resolve("missing.bin")).digest()
+                .toCompletableFuture().get(1, TimeUnit.MINUTES)
+        );
+        MatcherAssert.assertThat(err.getCause(), Matchers.instanceOf(IOException.class));
+    }
+
     @RepeatedTest(1000)
     void writeByteByByte(@TempDir final Path tmp) throws Exception {
         final String hello = "hello-world!!!";
@@ -153,6 +445,89 @@ public final class FileTest {
         );
     }
 
+    @Test
+    void copyWithSharedRateLimit(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("source");
+        final Path dest = tmp.resolve("dst");
+        new TestResource("file.bin").copy(src);
+        final RateLimit limit = new RateLimit(16 * 1024, 1024);
+        final ExecutorService exec = IoExecutor.shared();
+        final long start = System.nanoTime();
+        new File(dest, exec, IoMetrics.NOOP, limit).write(
+            new File(src, exec, IoMetrics.NOOP, limit).content(Buffers.Standard.K1)
+        ).toCompletableFuture().get();
+        final long elapsed = System.nanoTime() - start;
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(dest))),
+            Matchers.equalTo("064EA88A18650615410970219992D54DA5CEFAE194A23FCBE3C3AF484CB3F501")
+        );
+        MatcherAssert.assertThat(
+            elapsed, Matchers.greaterThan(TimeUnit.MILLISECONDS.toNanos(400))
+        );
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void copyInDirectMode(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("source");
+        final Path dest = tmp.resolve("dst");
+        new TestResource("file.bin").copy(src);
+        new File(dest).write(
+            new File(src).content(Buffers.Standard.K1, FileOption.DIRECT),
+            FileOption.DIRECT
+        ).toCompletableFuture().get();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(dest))),
+            Matchers.equalTo("064EA88A18650615410970219992D54DA5CEFAE194A23FCBE3C3AF484CB3F501")
+        );
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void writeNotAlignedFileInDirectMode(@TempDir final Path tmp,
+        @BufferSource(buffers = 10) final Publisher<ByteBuffer> source) throws Exception {
+        final Path out = tmp.resolve("out.bin");
+        new File(out).write(source, FileOption.DIRECT, Durability.ALL)
+            .toCompletableFuture().get();
+        MatcherAssert.assertThat(
+            bytesToHex(sha256().digest(Files.readAllBytes(out))),
+            Matchers.equalTo("84FF92691F909A05B224E1C56ABB4864F01B4F8E3C854E4BB4C7BAF1D3F6D652")
+        );
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void overwritesLongerFileInDirectMode(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        new TestResource("file.bin").copy(src);
+        final byte[] data = Files.readAllBytes(src);
+        final byte[] old = new byte[20_000];
+        new Random(1L).nextBytes(old);
+        final Path out = tmp.resolve("out.bin");
+        Files.write(out, old);
+        new File(out).write(new File(src).content(), FileOption.DIRECT)
+            .toCompletableFuture().get();
+        final byte[] expected = old.clone();
+        System.arraycopy(data, 0, expected, 0, data.length);
+        final ByteArrayOutputStream read = new ByteArrayOutputStream();
+        Flowable.fromPublisher(new File(out).content(Buffers.Standard.K4, FileOption.DIRECT))
+            .blockingForEach(
+                buf -> {
+                    final byte[] arr = new byte[buf.remaining()];
+                    buf.get(arr);
+                    read.write(arr);
+                }
+            );
+        final String hex = bytesToHex(sha256().digest(expected));
+        MatcherAssert.assertThat(
+            new String[]{
+                bytesToHex(sha256().digest(Files.readAllBytes(out))),
+                bytesToHex(sha256().digest(read.toByteArray())),
+            },
+            Matchers.arrayContaining(hex, hex)
+        );
+    }
+
     @Test
     void requestNextItemsOnlyOnDemand(@TempDir final Path tmp,
         @BufferSource(buffers = 100) final Publisher<ByteBuffer> source) throws Exception {
@@ -195,6 +570,21 @@ public final class FileTest {
         }
     }
 
+    /**
+     * SHA256 digest of tree node.
+     * @param prefix Node prefix
+     * @param parts Node content
+     * @return Digest
+     */
+    private static byte[] node(final byte prefix, final byte[]... parts) {
+        final MessageDigest sha = FileTest.sha256();
+        sha.update(prefix);
+        for (final byte[] part : parts) {
+            sha.update(part);
+        }
+        return sha.digest();
+    }
+
     /**
      * Convert bytes to hex.
      * @param bytes Bytes
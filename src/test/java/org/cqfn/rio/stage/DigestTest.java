@@ -0,0 +1,96 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.ext.TestResource;
+import org.cqfn.rio.file.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Digest}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class DigestTest {
+
+    @Test
+    void digestsContentWhileWritingFile(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        final Path dst = tmp.resolve("dst.bin");
+        new TestResource("file.bin").copy(src);
+        final Digest sha = new Digest(Digest.Algorithm.SHA256);
+        new File(src).content(Buffers.Standard.K4).subscribe(sha);
+        new File(dst).write(sha).toCompletableFuture().get(1, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            new Object[]{
+                sha.hex().toCompletableFuture().get(1, TimeUnit.MINUTES),
+                Files.readAllBytes(dst),
+            },
+            Matchers.arrayContaining(
+                "064EA88A18650615410970219992D54DA5CEFAE194A23FCBE3C3AF484CB3F501"
+                    .toLowerCase(Locale.US),
+                Files.readAllBytes(src)
+            )
+        );
+    }
+
+    @Test
+    void computesChecksumsOfHeapAndDirectBuffers() throws Exception {
+        final byte[] data = "checksum of heap and direct buffers".getBytes();
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+        final Adler32 adler = new Adler32();
+        adler.update(data);
+        MatcherAssert.assertThat(
+            new long[]{
+                DigestTest.checksum(Digest.Algorithm.CRC32, data),
+                DigestTest.checksum(Digest.Algorithm.ADLER32, data),
+            },
+            Matchers.equalTo(new long[]{crc.getValue(), adler.getValue()})
+        );
+    }
+
+    @Test
+    void failsWhenStreamFails() {
+        final Digest md5 = new Digest(Digest.Algorithm.MD5);
+        Flowable.<ByteBuffer>error(new IOException("test-error")).subscribe(md5);
+        Flowable.fromPublisher(md5).onErrorResumeNext(Flowable.empty()).blockingSubscribe();
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> md5.value().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(err.getCause(), Matchers.instanceOf(IOException.class));
+    }
+
+    private static long checksum(final Digest.Algorithm alg, final byte[] data) {
+        final int half = data.length / 2;
+        final ByteBuffer direct = ByteBuffer.allocateDirect(data.length - half);
+        direct.put(data, half, data.length - half);
+        ((Buffer) direct).flip();
+        final Digest digest = new Digest(alg);
+        Flowable.just(ByteBuffer.wrap(data, 0, half), direct).subscribe(digest);
+        Flowable.fromPublisher(digest).blockingSubscribe();
+        final byte[] sum = digest.value().toCompletableFuture().join();
+        return ByteBuffer.wrap(sum).getInt() & 0xFFFF_FFFFL;
+    }
+}
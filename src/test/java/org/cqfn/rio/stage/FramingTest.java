@@ -0,0 +1,111 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.Buffers;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Processor;
+
+/**
+ * Test case for {@link Framing}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class FramingTest {
+
+    @Test
+    void splitsRecordsAcrossBufferBoundaries() {
+        final byte[] data = "a\r\nbb\r\n\r\nc\rc\r\r\ndd".getBytes(StandardCharsets.UTF_8);
+        for (int size = 1; size <= data.length; ++size) {
+            final List<ByteBuffer> chunks = new ArrayList<>();
+            for (int pos = 0; pos < data.length; pos += size) {
+                final ByteBuffer direct = ByteBuffer.allocateDirect(
+                    Math.min(size, data.length - pos)
+                );
+                direct.put(data, pos, direct.capacity());
+                ((Buffer) direct).flip();
+                chunks.add(direct);
+            }
+            MatcherAssert.assertThat(
+                String.format("chunks of %d bytes", size),
+                FramingTest.records(
+                    new Framing(Buffers.Standard.K1, 1024, (byte) '\r', (byte) '\n'),
+                    Flowable.fromIterable(chunks)
+                ),
+                Matchers.contains("a", "bb", "", "c\rc\r", "dd")
+            );
+        }
+    }
+
+    @Test
+    void slicesRecordsOfOneBufferWithoutCopying() {
+        final byte[] first = "one\ntwo\nthr".getBytes(StandardCharsets.UTF_8);
+        final byte[] second = "ee\nfour\n".getBytes(StandardCharsets.UTF_8);
+        final Processor<ByteBuffer, ByteBuffer> lines = new Framing().split();
+        Flowable.just(ByteBuffer.wrap(first), ByteBuffer.wrap(second)).subscribe(lines);
+        final List<ByteBuffer> out = Flowable.fromPublisher(lines)
+            .timeout(1, TimeUnit.MINUTES).toList().blockingGet();
+        MatcherAssert.assertThat(
+            Arrays.asList(
+                out.get(0).array(), out.get(1).array(), out.get(2).array(), out.get(3).array()
+            ),
+            Matchers.contains(
+                Matchers.sameInstance(first), Matchers.sameInstance(first),
+                Matchers.not(
+                    Matchers.anyOf(Matchers.sameInstance(first), Matchers.sameInstance(second))
+                ),
+                Matchers.sameInstance(second)
+            )
+        );
+    }
+
+    @Test
+    void emitsRecordsOnDemand() {
+        final Processor<ByteBuffer, ByteBuffer> lines = new Framing().split();
+        Flowable.just(ByteBuffer.wrap("1\n2\n3\n4\n5".getBytes(StandardCharsets.UTF_8)))
+            .subscribe(lines);
+        final TestSubscriber<ByteBuffer> sub = Flowable.fromPublisher(lines).test(2);
+        sub.assertValueCount(2).assertNotComplete();
+        sub.requestMore(3);
+        sub.assertValueCount(5).assertComplete();
+    }
+
+    @Test
+    void failsOnTooLongRecord() {
+        final Processor<ByteBuffer, ByteBuffer> lines =
+            new Framing(Buffers.Heap.K1, 8, (byte) '\n').split();
+        Flowable.just(
+            ByteBuffer.wrap("short\nvery ".getBytes(StandardCharsets.UTF_8)),
+            ByteBuffer.wrap("long record\n".getBytes(StandardCharsets.UTF_8))
+        ).subscribe(lines);
+        Flowable.fromPublisher(lines).test()
+            .awaitDone(1, TimeUnit.MINUTES)
+            .assertValueCount(1)
+            .assertError(IOException.class);
+    }
+
+    private static List<String> records(final Framing framing,
+        final Flowable<ByteBuffer> source) {
+        final Processor<ByteBuffer, ByteBuffer> proc = framing.split();
+        source.subscribe(proc);
+        return Flowable.fromPublisher(proc).timeout(1, TimeUnit.MINUTES)
+            .map(buf -> StandardCharsets.UTF_8.decode(buf).toString())
+            .toList().blockingGet();
+    }
+}
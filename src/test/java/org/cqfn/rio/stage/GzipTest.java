@@ -0,0 +1,267 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.ext.TestResource;
+import org.cqfn.rio.file.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+
+/**
+ * Test case for {@link Gzip} and {@link Deflate}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class GzipTest {
+
+    @Test
+    void compressesFileToGzipFormat(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        final Path dst = tmp.resolve("dst.gz");
+        new TestResource("file.bin").copy(src);
+        final Processor<ByteBuffer, ByteBuffer> gzip = new Gzip().compress();
+        new File(src).content(Buffers.Standard.K4).subscribe(gzip);
+        new File(dst).write(gzip).toCompletableFuture().get(1, TimeUnit.MINUTES);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream gis = new GZIPInputStream(Files.newInputStream(dst))) {
+            final byte[] buf = new byte[4096];
+            int len = gis.read(buf);
+            while (len >= 0) {
+                out.write(buf, 0, len);
+                len = gis.read(buf);
+            }
+        }
+        MatcherAssert.assertThat(out.toByteArray(), Matchers.equalTo(Files.readAllBytes(src)));
+    }
+
+    @Test
+    void decompressesMultiMemberGzipInSmallChunks() throws Exception {
+        final byte[] first = GzipTest.random(100_000, 1);
+        final byte[] second = GzipTest.random(50_000, 2);
+        final ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        gz.write(GzipTest.gzip(first));
+        gz.write(GzipTest.gzip(second));
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        MatcherAssert.assertThat(
+            GzipTest.collect(new Gzip(Buffers.Heap.K1).decompress(), GzipTest.chunks(gz, 7)),
+            Matchers.equalTo(expected.toByteArray())
+        );
+    }
+
+    @Test
+    void decompressesMultiMemberGzipInChunksOfVariousSizes() throws Exception {
+        final byte[] first = GzipTest.random(20_000, 5);
+        final byte[] second = GzipTest.random(30_000, 6);
+        final ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        gz.write(GzipTest.gzip(first));
+        gz.write(GzipTest.gzip(second));
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        for (final int size : new int[]{1, 13, 100, 512, 1000, 4096, gz.size() - 1}) {
+            MatcherAssert.assertThat(
+                String.format("chunks of %d bytes", size),
+                GzipTest.collect(new Gzip().decompress(), GzipTest.chunks(gz, size)),
+                Matchers.equalTo(expected.toByteArray())
+            );
+        }
+    }
+
+    @Test
+    void decompressesGzipInIrregularChunks() throws Exception {
+        final byte[] data = GzipTest.random(200_000, 7);
+        final ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        gz.write(GzipTest.gzip(data));
+        gz.write(GzipTest.gzip(data));
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(data);
+        expected.write(data);
+        final Random rnd = new Random(8);
+        for (int attempt = 0; attempt < 10; ++attempt) {
+            MatcherAssert.assertThat(
+                GzipTest.collect(
+                    new Gzip(Buffers.Standard.K1).decompress(), GzipTest.irregular(gz, rnd)
+                ),
+                Matchers.equalTo(expected.toByteArray())
+            );
+        }
+    }
+
+    @Test
+    void decompressesWhenTrailerSpansBuffers() throws Exception {
+        final byte[] data = GzipTest.random(40_000, 9);
+        final byte[] gz = GzipTest.gzip(data);
+        for (int tail = 1; tail <= 12; ++tail) {
+            MatcherAssert.assertThat(
+                String.format("last buffer of %d bytes", tail),
+                GzipTest.collect(
+                    new Gzip().decompress(),
+                    Flowable.just(
+                        ByteBuffer.wrap(gz, 0, gz.length - tail).slice(),
+                        ByteBuffer.wrap(gz, gz.length - tail, tail).slice()
+                    )
+                ),
+                Matchers.equalTo(data)
+            );
+        }
+    }
+
+    @Test
+    void compressesIrregularChunks() throws Exception {
+        final byte[] data = GzipTest.random(300_000, 10);
+        final ByteArrayOutputStream src = new ByteArrayOutputStream();
+        src.write(data);
+        final ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        gz.write(
+            GzipTest.collect(
+                new Gzip(Buffers.Heap.K1).compress(), GzipTest.irregular(src, new Random(11))
+            )
+        );
+        MatcherAssert.assertThat(
+            GzipTest.collect(new Gzip().decompress(), GzipTest.chunks(gz, 777)),
+            Matchers.equalTo(data)
+        );
+    }
+
+    @Test
+    void compressesAndDecompressesDirectBuffers() throws Exception {
+        final byte[] data = GzipTest.random(300_000, 3);
+        final Deflate deflate = new Deflate(Buffers.Standard.K4);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(
+            GzipTest.collect(
+                deflate.compress(),
+                Flowable.fromArray(GzipTest.direct(data))
+            )
+        );
+        MatcherAssert.assertThat(
+            GzipTest.collect(deflate.decompress(), GzipTest.chunks(compressed, 1000)),
+            Matchers.equalTo(data)
+        );
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_11)
+    void bindsByteBufferMethodsOfZlib() {
+        MatcherAssert.assertThat(Zlib.available(), Matchers.is(true));
+    }
+
+    @Test
+    void failsOnCorruptTrailer() throws Exception {
+        final byte[] gz = GzipTest.gzip(GzipTest.random(10_000, 4));
+        gz[gz.length - 5] ^= 1;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(gz);
+        final ExecutionException err = Assertions.assertThrows(
+            ExecutionException.class,
+            () -> GzipTest.collect(new Gzip().decompress(), GzipTest.chunks(out, 512))
+        );
+        MatcherAssert.assertThat(err.getCause(), Matchers.instanceOf(ZipException.class));
+    }
+
+    private static byte[] collect(final Processor<ByteBuffer, ByteBuffer> proc,
+        final Publisher<ByteBuffer> src) throws Exception {
+        src.subscribe(proc);
+        final List<byte[]> parts = new ArrayList<>(0);
+        Flowable.fromPublisher(proc)
+            .map(
+                buf -> {
+                    final byte[] arr = new byte[buf.remaining()];
+                    buf.get(arr);
+                    return arr;
+                }
+            )
+            .toList()
+            .toFuture()
+            .get(1, TimeUnit.MINUTES)
+            .forEach(parts::add);
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        for (final byte[] part : parts) {
+            res.write(part);
+        }
+        return res.toByteArray();
+    }
+
+    private static Publisher<ByteBuffer> chunks(final ByteArrayOutputStream data,
+        final int size) {
+        final byte[] arr = data.toByteArray();
+        final List<ByteBuffer> res = new ArrayList<>(arr.length / size + 1);
+        for (int pos = 0; pos < arr.length; pos += size) {
+            res.add(ByteBuffer.wrap(arr, pos, Math.min(size, arr.length - pos)).slice());
+        }
+        return Flowable.fromIterable(res);
+    }
+
+    private static Publisher<ByteBuffer> irregular(final ByteArrayOutputStream data,
+        final Random rnd) {
+        final byte[] arr = data.toByteArray();
+        final List<ByteBuffer> res = new ArrayList<>(0);
+        int pos = 0;
+        while (pos < arr.length) {
+            final int len = Math.min(1 + rnd.nextInt(3000), arr.length - pos);
+            if (rnd.nextBoolean()) {
+                res.add(ByteBuffer.wrap(arr, pos, len).slice());
+            } else {
+                final ByteBuffer buf = ByteBuffer.allocateDirect(len);
+                buf.put(arr, pos, len);
+                ((Buffer) buf).flip();
+                res.add(buf);
+            }
+            pos += len;
+        }
+        return Flowable.fromIterable(res);
+    }
+
+    private static ByteBuffer direct(final byte[] data) {
+        final ByteBuffer res = ByteBuffer.allocateDirect(data.length);
+        res.put(data);
+        ((Buffer) res).flip();
+        return res;
+    }
+
+    private static byte[] gzip(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gos = new GZIPOutputStream(out)) {
+            gos.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] random(final int size, final long seed) {
+        final Random rnd = new Random(seed);
+        final byte[] res = new byte[size];
+        for (int pos = 0; pos < size; ++pos) {
+            res[pos] = (byte) ('a' + rnd.nextInt(16));
+        }
+        return res;
+    }
+}
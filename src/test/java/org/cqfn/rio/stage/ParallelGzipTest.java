@@ -0,0 +1,121 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import io.reactivex.Flowable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.file.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reactivestreams.Processor;
+
+/**
+ * Test case for {@link ParallelGzip}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class ParallelGzipTest {
+
+    @Test
+    void compressesBlocksInParallelToGzipMember(@TempDir final Path tmp) throws Exception {
+        final byte[] data = ParallelGzipTest.text(3 * 1024 * 1024 + 17);
+        final Path src = tmp.resolve("src.txt");
+        final Path dst = tmp.resolve("dst.gz");
+        Files.write(src, data);
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final Processor<ByteBuffer, ByteBuffer> gzip = new ParallelGzip(
+                Deflater.DEFAULT_COMPRESSION, 64 * 1024, exec, 4
+            ).compress();
+            new File(src).content(Buffers.Standard.K16).subscribe(gzip);
+            new File(dst).write(gzip).toCompletableFuture().get(1, TimeUnit.MINUTES);
+        } finally {
+            exec.shutdown();
+        }
+        MatcherAssert.assertThat(
+            ParallelGzipTest.gunzip(Files.newInputStream(dst)),
+            Matchers.equalTo(data)
+        );
+    }
+
+    @Test
+    void decompressesWithGzipStage() throws Exception {
+        final byte[] data = ParallelGzipTest.text(500_000);
+        final Processor<ByteBuffer, ByteBuffer> gzip = new ParallelGzip().compress();
+        Flowable.just(ByteBuffer.wrap(data)).subscribe(gzip);
+        final Processor<ByteBuffer, ByteBuffer> gunzip = new Gzip().decompress();
+        gzip.subscribe(gunzip);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Flowable.fromPublisher(gunzip).timeout(1, TimeUnit.MINUTES)
+            .blockingForEach(
+                buf -> {
+                    final byte[] arr = new byte[buf.remaining()];
+                    buf.get(arr);
+                    out.write(arr);
+                }
+            );
+        MatcherAssert.assertThat(out.toByteArray(), Matchers.equalTo(data));
+    }
+
+    @Test
+    void compressesEmptyStream() throws Exception {
+        final Processor<ByteBuffer, ByteBuffer> gzip = new ParallelGzip().compress();
+        Flowable.<ByteBuffer>empty().subscribe(gzip);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Flowable.fromPublisher(gzip).timeout(1, TimeUnit.MINUTES)
+            .blockingForEach(
+                buf -> {
+                    final byte[] arr = new byte[buf.remaining()];
+                    buf.get(arr);
+                    out.write(arr);
+                }
+            );
+        MatcherAssert.assertThat(
+            ParallelGzipTest.gunzip(new ByteArrayInputStream(out.toByteArray())).length,
+            Matchers.equalTo(0)
+        );
+    }
+
+    private static byte[] gunzip(final InputStream src) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream gis = new GZIPInputStream(src)) {
+            final byte[] buf = new byte[8192];
+            int len = gis.read(buf);
+            while (len >= 0) {
+                out.write(buf, 0, len);
+                len = gis.read(buf);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] text(final int size) {
+        final String[] words = {"rio ", "reactive ", "channel ", "buffer ", "gzip\n"};
+        final Random rnd = new Random(size);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        while (out.size() < size) {
+            final byte[] word = words[rnd.nextInt(words.length)].getBytes();
+            out.write(word, 0, Math.min(word.length, size - out.size()));
+        }
+        return out.toByteArray();
+    }
+}
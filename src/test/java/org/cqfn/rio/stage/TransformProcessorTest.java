@@ -0,0 +1,93 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stage;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.tck.IdentityProcessorVerification;
+import org.reactivestreams.tck.TestEnvironment;
+import org.testng.annotations.AfterClass;
+
+/**
+ * Test case for {@link TransformProcessor}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings(
+    {
+        "PMD.TestClassWithoutTestCases", "PMD.JUnit4TestShouldUseAfterAnnotation"
+    }
+)
+public final class TransformProcessorTest extends IdentityProcessorVerification<ByteBuffer> {
+
+    /**
+     * Executor service.
+     */
+    private final ExecutorService exec;
+
+    /**
+     * Ctor.
+     */
+    public TransformProcessorTest() {
+        super(new TestEnvironment());
+        this.exec = Executors.newCachedThreadPool();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        this.exec.shutdown();
+    }
+
+    @Override
+    public Processor<ByteBuffer, ByteBuffer> createIdentityProcessor(final int size) {
+        return new TransformProcessor(
+            (input, last) -> {
+                ByteBuffer res = null;
+                if (input.hasRemaining()) {
+                    res = input.duplicate();
+                    ((Buffer) input).position(input.limit());
+                }
+                return res;
+            },
+            size
+        );
+    }
+
+    @Override
+    public Publisher<ByteBuffer> createFailedPublisher() {
+        return Flowable.error(new IOException("test-error"));
+    }
+
+    @Override
+    public ExecutorService publisherExecutorService() {
+        return this.exec;
+    }
+
+    @Override
+    public ByteBuffer createElement(final int element) {
+        final ByteBuffer buf = ByteBuffer.allocate(Integer.BYTES);
+        buf.putInt(element);
+        ((Buffer) buf).flip();
+        return buf;
+    }
+
+    @Override
+    public long maxSupportedSubscribers() {
+        return 1;
+    }
+
+    @Override
+    public long boundedDepthOfOnNextAndRequestRecursion() {
+        return 1;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stream;
+
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.ext.TestResource;
+import org.cqfn.rio.file.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link PublisherInputStream}.
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+class PublisherInputStreamTest {
+
+    @RepeatedTest(100)
+    void readsFileContent(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("source");
+        new TestResource("file.bin").copy(src);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream input =
+            new PublisherInputStream(new File(src).content(Buffers.Standard.K1), 2)) {
+            final byte[] chunk = new byte[700];
+            int read = input.read(chunk);
+            while (read >= 0) {
+                out.write(chunk, 0, read);
+                read = input.read(chunk);
+            }
+        }
+        MatcherAssert.assertThat(out.toByteArray(), Matchers.equalTo(Files.readAllBytes(src)));
+    }
+
+    @Test
+    void readsAcrossBuffers() throws Exception {
+        final InputStream input = new PublisherInputStream(
+            Flowable.just("ab", "", "cde", "f").map(str -> ByteBuffer.wrap(str.getBytes()))
+        );
+        final byte[] dst = new byte[4];
+        final int first = input.read();
+        final int available = input.available();
+        final int read = input.read(dst, 0, 4);
+        MatcherAssert.assertThat(
+            new Object[]{first, available, read, new String(dst), input.read(), input.read()},
+            Matchers.equalTo(new Object[]{(int) 'a', 5, 4, "bcde", (int) 'f', -1})
+        );
+    }
+
+    @Test
+    void failsWithPublisherError() {
+        final InputStream input = new PublisherInputStream(
+            Flowable.error(new IllegalStateException("boom"))
+        );
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(IOException.class, input::read).getCause().getMessage(),
+            Matchers.equalTo("boom")
+        );
+    }
+
+    @Test
+    void returnsBytesReadBeforeError() throws Exception {
+        final InputStream input = new PublisherInputStream(
+            Flowable.just(ByteBuffer.wrap(new byte[]{1, 2, 3}))
+                .concatWith(Flowable.error(new IllegalStateException("boom")))
+        );
+        final byte[] dst = new byte[1024];
+        MatcherAssert.assertThat(input.read(dst, 0, dst.length), Matchers.equalTo(3));
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(IOException.class, () -> input.read(dst, 0, dst.length))
+                .getCause().getMessage(),
+            Matchers.equalTo("boom")
+        );
+    }
+
+    @Test
+    void cancelsOnClose() throws Exception {
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final InputStream input = new PublisherInputStream(
+            Flowable.just(ByteBuffer.wrap(new byte[]{1, 2}))
+                .concatWith(Flowable.never())
+                .doOnCancel(() -> cancelled.set(true))
+        );
+        MatcherAssert.assertThat(input.read(), Matchers.equalTo(1));
+        input.close();
+        MatcherAssert.assertThat(cancelled.get(), Matchers.is(true));
+    }
+}
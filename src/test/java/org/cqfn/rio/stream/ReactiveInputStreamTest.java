@@ -26,15 +26,21 @@ package org.cqfn.rio.stream;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.cqfn.rio.Buffers;
+import org.cqfn.rio.ext.TestResource;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
@@ -94,6 +100,37 @@ class ReactiveInputStreamTest {
         );
     }
 
+    @Test
+    void transfersDataInHeapBuffers() throws Exception {
+        final byte[] data = new byte[20_000];
+        new Random(0).nextBytes(data);
+        final CompletableFuture<ByteBuffer> buf = new CompletableFuture<>();
+        new ReactiveInputStream(new ByteArrayInputStream(data)).read()
+            .subscribe(new ByteBufferSubscriber(buf, data.length));
+        MatcherAssert.assertThat(buf.join().array(), new IsEqual<>(data));
+    }
+
+    @Test
+    void transfersDataInDirectBuffers() throws Exception {
+        final byte[] data = new byte[20_000];
+        new Random(0).nextBytes(data);
+        final CompletableFuture<ByteBuffer> buf = new CompletableFuture<>();
+        new ReactiveInputStream(new ByteArrayInputStream(data)).read(Buffers.Standard.K16)
+            .subscribe(new ByteBufferSubscriber(buf, data.length));
+        MatcherAssert.assertThat(buf.join().array(), new IsEqual<>(data));
+    }
+
+    @Test
+    void readsFileInputStream(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("source");
+        new TestResource("file.bin").copy(src);
+        final byte[] data = Files.readAllBytes(src);
+        final CompletableFuture<ByteBuffer> buf = new CompletableFuture<>();
+        new ReactiveInputStream(new FileInputStream(src.toFile())).read(Buffers.Heap.K1)
+            .subscribe(new ByteBufferSubscriber(buf, data.length));
+        MatcherAssert.assertThat(buf.join().array(), new IsEqual<>(data));
+    }
+
     /**
      * Subscrier to get publisher ByteBuffer.
      */
@@ -6,18 +6,24 @@ package org.cqfn.rio.stream;
 
 import io.reactivex.Flowable;
 import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Random;
 import java.util.concurrent.CompletableFuture;
 import org.cqfn.rio.WriteGreed;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test for {@link ReactiveOutputStream}.
@@ -77,6 +83,39 @@ class ReactiveOutputStreamTest {
         );
     }
 
+    @Test
+    void transferDirectBuffersWithDefaultGreed() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] data = new byte[100 * 1024];
+        new Random(0).nextBytes(data);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+        ((Buffer) direct).flip();
+        new ReactiveOutputStream(out)
+            .write(Flowable.just(direct, ByteBuffer.wrap(data, 10, 20).slice()))
+            .toCompletableFuture().join();
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(data, 0, data.length);
+        expected.write(data, 10, 20);
+        MatcherAssert.assertThat(
+            out.toByteArray(),
+            new IsEqual<>(expected.toByteArray())
+        );
+    }
+
+    @Test
+    void transferDataToFileStream(@TempDir final Path tmp) throws IOException {
+        final Path dest = tmp.resolve("dest");
+        final byte[] data = this.getBinFile();
+        new ReactiveOutputStream(new FileOutputStream(dest.toFile()))
+            .write(Flowable.fromArray(ByteBuffer.wrap(data)))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            Files.readAllBytes(dest),
+            new IsEqual<>(data)
+        );
+    }
+
     @SuppressWarnings("PMD.AssignmentInOperand")
     private byte[] getBinFile() {
         final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
@@ -0,0 +1,63 @@
+/*
+ * MIT License Copyright (c) 2020-2021 cqfn.org
+ * https://github.com/cqfn/rio/blob/master/LICENSE.txt
+ */
+package org.cqfn.rio.stream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.rio.Buffers;
+import org.cqfn.rio.ext.TestResource;
+import org.cqfn.rio.file.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link ReactiveProcess}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@DisabledOnOs(OS.WINDOWS)
+public final class ReactiveProcessTest {
+
+    @Test
+    void pipesFileContentThroughProcess(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        final Path dst = tmp.resolve("dst.bin");
+        new TestResource("file.bin").copy(src);
+        final ReactiveProcess proc = new ReactiveProcess(new ProcessBuilder("cat").start());
+        final CompletionStage<Void> written = proc.write(
+            new File(src).content(Buffers.Standard.K4)
+        );
+        new File(dst).write(proc.read()).toCompletableFuture().get(1, TimeUnit.MINUTES);
+        written.toCompletableFuture().get(1, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            Files.readAllBytes(dst),
+            Matchers.equalTo(Files.readAllBytes(src))
+        );
+    }
+
+    @Test
+    void transfersFileIntoProcess(@TempDir final Path tmp) throws Exception {
+        final Path src = tmp.resolve("src.bin");
+        final Path dst = tmp.resolve("dst.bin");
+        new TestResource("file.bin").copy(src);
+        final ReactiveProcess proc = new ReactiveProcess(new ProcessBuilder("cat").start());
+        final CompletionStage<Void> written = proc.write(src);
+        new File(dst).write(proc.read(Buffers.Heap.K16))
+            .toCompletableFuture().get(1, TimeUnit.MINUTES);
+        written.toCompletableFuture().get(1, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            Files.readAllBytes(dst),
+            Matchers.equalTo(Files.readAllBytes(src))
+        );
+    }
+}